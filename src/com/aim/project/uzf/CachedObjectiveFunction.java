@@ -0,0 +1,203 @@
+package com.aim.project.uzf;
+
+import java.util.Arrays;
+
+import com.aim.project.uzf.interfaces.ObjectiveFunctionInterface;
+import com.aim.project.uzf.interfaces.SolutionRepresentationInterface;
+
+/**
+ * Remembers the objective values of recently evaluated tours, keyed by their
+ * {@link com.aim.project.uzf.solution.EdgeHash}, so that tours a hyper-heuristic regenerates (undone swaps, crossovers
+ * of identical parents, children equal to a parent) are not evaluated again. A tour and its reverse share an entry,
+ * which is correct since they have the same cost.
+ * <br>
+ * The entries live in an open-addressing table of primitive arrays with linear probing. Once the cache holds its
+ * capacity, a clock hand evicts the first entry that was not looked up since the hand last passed it. The edge hashes
+ * of tours changed by the heuristic operators are updated in constant time, so a lookup for those costs far less than
+ * an evaluation. Not thread-safe: every domain wraps the shared objective function of its instance in its own cache.
+ */
+public class CachedObjectiveFunction implements ObjectiveFunctionInterface {
+
+	// Number of tours to remember, 0 (default) to evaluate every tour
+	public static final String CACHE_SIZE_PROPERTY = "uzf.fitness.cacheSize";
+
+	private static final byte EMPTY = 0;
+	private static final byte UNREFERENCED = 1;
+	private static final byte REFERENCED = 2;
+
+	private final ObjectiveFunctionInterface oObjectiveFunction;
+	private final int iCapacity;
+	private final int iMask;
+
+	private final long[] alKeys;
+	private final int[] aiValues;
+	private final byte[] abStates;
+	private int iSize;
+	private int iHand;
+
+	private long lHits;
+	private long lMisses;
+	private long lEvictions;
+
+	public CachedObjectiveFunction(ObjectiveFunctionInterface oObjectiveFunction, int iCapacity) {
+
+		if (iCapacity <= 0) {
+			throw new IllegalArgumentException("Cache capacity must be positive: " + iCapacity);
+		}
+		this.oObjectiveFunction = oObjectiveFunction;
+		this.iCapacity = iCapacity;
+
+		// At most half of the slots are ever used, which keeps probe sequences short
+		int iSlots = Integer.highestOneBit(Math.max(2, iCapacity) - 1) << 2;
+		this.iMask = iSlots - 1;
+		this.alKeys = new long[iSlots];
+		this.aiValues = new int[iSlots];
+		this.abStates = new byte[iSlots];
+	}
+
+	@Override
+	public int getObjectiveFunctionValue(SolutionRepresentationInterface oSolution) {
+
+		long lKey = oSolution.getEdgeHash();
+		int iSlot = find(lKey);
+		if (abStates[iSlot] != EMPTY) {
+			lHits++;
+			abStates[iSlot] = REFERENCED;
+			return aiValues[iSlot];
+		}
+
+		lMisses++;
+		int iValue = oObjectiveFunction.getObjectiveFunctionValue(oSolution);
+		if (iSize == iCapacity) {
+			evict();
+			iSlot = find(lKey);
+		}
+		alKeys[iSlot] = lKey;
+		aiValues[iSlot] = iValue;
+		abStates[iSlot] = UNREFERENCED;
+		iSize++;
+
+		return iValue;
+	}
+
+	@Override
+	public int getCost(int iLocationA, int iLocationB) {
+
+		return oObjectiveFunction.getCost(iLocationA, iLocationB);
+	}
+
+	@Override
+	public int getCostBetweenFoodPreparationAreaAnd(int iLocation) {
+
+		return oObjectiveFunction.getCostBetweenFoodPreparationAreaAnd(iLocation);
+	}
+
+	// Gets the objective function evaluating the tours that are not cached
+	public ObjectiveFunctionInterface getObjectiveFunction() {
+
+		return oObjectiveFunction;
+	}
+
+	// Gets the maximum number of tours remembered
+	public int getCapacity() {
+
+		return iCapacity;
+	}
+
+	// Gets the number of tours currently remembered
+	public int size() {
+
+		return iSize;
+	}
+
+	public long getHits() {
+
+		return lHits;
+	}
+
+	public long getMisses() {
+
+		return lMisses;
+	}
+
+	public long getEvictions() {
+
+		return lEvictions;
+	}
+
+	// Gets the share of lookups answered from the cache, or 0 before the first lookup
+	public double getHitRate() {
+
+		long lLookups = lHits + lMisses;
+		return lLookups == 0 ? 0 : (double) lHits / lLookups;
+	}
+
+	// Forgets every tour and resets the statistics
+	public void clear() {
+
+		Arrays.fill(abStates, EMPTY);
+		iSize = 0;
+		iHand = 0;
+		lHits = 0;
+		lMisses = 0;
+		lEvictions = 0;
+	}
+
+	@Override
+	public String toString() {
+
+		return String.format("%d/%d tours, %d hits, %d misses (%.1f%%), %d evictions", iSize, iCapacity, lHits,
+				lMisses, 100 * getHitRate(), lEvictions);
+	}
+
+	// Helper method to get the slot holding the key, or the empty slot where it would be inserted
+	private int find(long lKey) {
+
+		int iSlot = home(lKey);
+		while (abStates[iSlot] != EMPTY && alKeys[iSlot] != lKey) {
+			iSlot = (iSlot + 1) & iMask;
+		}
+
+		return iSlot;
+	}
+
+	// Helper method to get the first slot probed for the key
+	private int home(long lKey) {
+
+		return (int) (lKey ^ (lKey >>> 32)) & iMask;
+	}
+
+	// Helper method to advance the clock hand to an entry not looked up since the last pass, and remove it
+	private void evict() {
+
+		while (abStates[iHand] != UNREFERENCED) {
+			if (abStates[iHand] == REFERENCED) {
+				abStates[iHand] = UNREFERENCED;
+			}
+			iHand = (iHand + 1) & iMask;
+		}
+		remove(iHand);
+		lEvictions++;
+	}
+
+	// Helper method to remove the entry in a slot, moving later entries of the probe sequence back into the gap
+	private void remove(int iSlot) {
+
+		abStates[iSlot] = EMPTY;
+		iSize--;
+
+		int iGap = iSlot;
+		for (int j = (iGap + 1) & iMask; abStates[j] != EMPTY; j = (j + 1) & iMask) {
+			int iHome = home(alKeys[j]);
+			// An entry whose home lies cyclically after the gap, up to its own slot, is still reachable
+			boolean bReachable = iGap <= j ? (iGap < iHome && iHome <= j) : (iGap < iHome || iHome <= j);
+			if (!bReachable) {
+				alKeys[iGap] = alKeys[j];
+				aiValues[iGap] = aiValues[j];
+				abStates[iGap] = abStates[j];
+				abStates[j] = EMPTY;
+				iGap = j;
+			}
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package com.aim.project.uzf;
+
+import com.aim.project.uzf.instance.DistanceKernel;
+
+/**
+ * Loops used to evaluate whole tours and to find the nearest unvisited enclosure directly from the interleaved
+ * enclosure coordinates ({@code x0, y0, x1, y1, ...}). Both kernels return exactly the same results.
+ * <br>
+ * The kernel is selected once at startup through the {@value #KERNEL_PROPERTY} system property.
+ */
+public enum EvaluationKernel {
+
+	/**
+	 * One distance at a time, as {@link UZFObjectiveFunction#getCost(int, int)} calculates it.
+	 */
+	SCALAR {
+		@Override
+		public int getTourCost(int[] coordinates, int foodPreparationAreaX, int foodPreparationAreaY, int[] tour) {
+
+			int n = tour.length;
+			int totalDistance = cost(coordinates[2 * tour[0]] - foodPreparationAreaX,
+					coordinates[2 * tour[0] + 1] - foodPreparationAreaY);
+			for (int i = 0; i < n - 1; i++) {
+				int a = tour[i];
+				int b = tour[i + 1];
+				totalDistance += cost(coordinates[2 * a] - coordinates[2 * b],
+						coordinates[2 * a + 1] - coordinates[2 * b + 1]);
+			}
+			totalDistance += cost(coordinates[2 * tour[n - 1]] - foodPreparationAreaX,
+					coordinates[2 * tour[n - 1] + 1] - foodPreparationAreaY);
+
+			return totalDistance;
+		}
+
+		@Override
+		public int getNearestUnvisited(int[] coordinates, int from, boolean[] visited) {
+
+			int nearest = -1;
+			long threshold = Long.MAX_VALUE;
+			int x = coordinates[2 * from];
+			int y = coordinates[2 * from + 1];
+			for (int j = 0; j < visited.length; j++) {
+				if (!visited[j]) {
+					long squaredDistance = DistanceKernel.squaredDistance(coordinates, j, x, y);
+					if (squaredDistance <= threshold) {
+						threshold = DistanceKernel.maxSquaredDistanceBelow(DistanceKernel.ceilSqrt(squaredDistance));
+						nearest = j;
+					}
+				}
+			}
+
+			return nearest;
+		}
+	},
+
+	/**
+	 * Distances in blocks of {@value #BLOCK_SIZE}: the coordinate differences are gathered first, so that the
+	 * square roots and roundings run as one branch-free loop over primitive arrays which the JIT compiler turns
+	 * into SIMD instructions where the CPU supports them.
+	 */
+	BATCHED {
+		@Override
+		public int getTourCost(int[] coordinates, int foodPreparationAreaX, int foodPreparationAreaY, int[] tour) {
+
+			int n = tour.length;
+			int totalDistance = cost(coordinates[2 * tour[0]] - foodPreparationAreaX,
+					coordinates[2 * tour[0] + 1] - foodPreparationAreaY);
+
+			Scratch scratch = SCRATCH.get();
+			double[] dx = scratch.dx;
+			double[] dy = scratch.dy;
+			for (int start = 0; start < n - 1; start += BLOCK_SIZE) {
+				int length = Math.min(BLOCK_SIZE, n - 1 - start);
+
+				// Gather the differences between consecutive enclosures of the tour
+				for (int k = 0; k < length; k++) {
+					int a = tour[start + k];
+					int b = tour[start + k + 1];
+					dx[k] = coordinates[2 * a] - coordinates[2 * b];
+					dy[k] = coordinates[2 * a + 1] - coordinates[2 * b + 1];
+				}
+
+				// Turn the differences into rounded up distances and sum them
+				for (int k = 0; k < length; k++) {
+					dx[k] = Math.ceil(Math.sqrt((dx[k] * dx[k]) + (dy[k] * dy[k])));
+				}
+				for (int k = 0; k < length; k++) {
+					totalDistance += (int) dx[k];
+				}
+			}
+
+			totalDistance += cost(coordinates[2 * tour[n - 1]] - foodPreparationAreaX,
+					coordinates[2 * tour[n - 1] + 1] - foodPreparationAreaY);
+
+			return totalDistance;
+		}
+
+		@Override
+		public int getNearestUnvisited(int[] coordinates, int from, boolean[] visited) {
+
+			int nearest = -1;
+			long threshold = Long.MAX_VALUE;
+			int x = coordinates[2 * from];
+			int y = coordinates[2 * from + 1];
+
+			long[] squaredDistances = SCRATCH.get().squaredDistances;
+			for (int start = 0; start < visited.length; start += BLOCK_SIZE) {
+				int length = Math.min(BLOCK_SIZE, visited.length - start);
+
+				// Squared distances to every enclosure of the block, visited or not, to keep the loop branch-free
+				for (int k = 0; k < length; k++) {
+					long dx = x - coordinates[2 * (start + k)];
+					long dy = y - coordinates[2 * (start + k) + 1];
+					squaredDistances[k] = (dx * dx) + (dy * dy);
+				}
+
+				// The first unvisited enclosure with a strictly lower cost wins, as in the scalar scan
+				for (int k = 0; k < length; k++) {
+					if (squaredDistances[k] <= threshold && !visited[start + k]) {
+						threshold = DistanceKernel.maxSquaredDistanceBelow(DistanceKernel.ceilSqrt(squaredDistances[k]));
+						nearest = start + k;
+					}
+				}
+			}
+
+			return nearest;
+		}
+	};
+
+	// "scalar" or "batched" (default)
+	public static final String KERNEL_PROPERTY = "uzf.evaluation.kernel";
+
+	public static final int BLOCK_SIZE = 256;
+
+	// Block buffers of the batched kernel, one set per thread since the kernels are shared by all of them
+	private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+	private static final EvaluationKernel DEFAULT = "scalar".equalsIgnoreCase(System.getProperty(KERNEL_PROPERTY))
+			? SCALAR : BATCHED;
+
+	/**
+	 * @return The kernel selected at startup by the {@value #KERNEL_PROPERTY} system property.
+	 */
+	public static EvaluationKernel getDefault() {
+
+		return DEFAULT;
+	}
+
+	/**
+	 * @param coordinates The enclosure coordinates interleaved as {@code x0, y0, x1, y1, ...}.
+	 * @param foodPreparationAreaX The x coordinate of the food preparation area.
+	 * @param foodPreparationAreaY The y coordinate of the food preparation area.
+	 * @param tour The enclosure IDs in visiting order.
+	 * @return The length of the tour, starting and ending at the food preparation area.
+	 */
+	public abstract int getTourCost(int[] coordinates, int foodPreparationAreaX, int foodPreparationAreaY, int[] tour);
+
+	/**
+	 * @param coordinates The enclosure coordinates interleaved as {@code x0, y0, x1, y1, ...}.
+	 * @param from The enclosure to search from.
+	 * @param visited Whether each enclosure has been visited already.
+	 * @return The closest unvisited enclosure (the lowest ID among those with equal cost), or -1 if all are visited.
+	 */
+	public abstract int getNearestUnvisited(int[] coordinates, int from, boolean[] visited);
+
+	// Helper method to calculate the rounded up length of the vector (dx, dy)
+	private static int cost(int dx, int dy) {
+
+		return DistanceKernel.ceilLength(dx, dy);
+	}
+
+	// Buffers holding one block of the batched kernel, reused across calls
+	private static final class Scratch {
+
+		private final double[] dx = new double[BLOCK_SIZE];
+		private final double[] dy = new double[BLOCK_SIZE];
+		private final long[] squaredDistances = new long[BLOCK_SIZE];
+	}
+}
@@ -0,0 +1,238 @@
+package com.aim.project.uzf;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import com.aim.project.uzf.output.ChannelOutput;
+import com.aim.project.uzf.output.SolutionWriter;
+
+/**
+ * Records when each new best solution was found as (time, objective, heuristic, iteration) tuples.
+ * <br>
+ * Records are kept in preallocated primitive arrays, so recording never allocates. Once the arrays are
+ * full the {@link SamplingPolicy} decides what is kept; the most recent record is always kept so that the
+ * final best solution appears in every export.
+ */
+public class ImprovementTrace {
+
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	// Heuristic ID recorded for solutions that were created by initialisation rather than a heuristic
+	public static final int INITIALISATION = -1;
+
+	// "UZFR" when read as little-endian bytes
+	public static final int BINARY_MAGIC = 0x52465A55;
+
+	public static final int BINARY_VERSION = 1;
+
+	public enum SamplingPolicy {
+
+		/**
+		 * Overwrite the oldest records, keeping the most recent improvements.
+		 */
+		OVERWRITE_OLDEST,
+
+		/**
+		 * Drop every other record and halve the recording rate, keeping an even sample of the whole run.
+		 */
+		DECIMATE,
+
+		/**
+		 * Keep the earliest records and only update the most recent one.
+		 */
+		KEEP_FIRST
+	}
+
+	private final SamplingPolicy policy;
+	private final long[] times;
+	private final int[] objectives;
+	private final int[] heuristics;
+	private final long[] iterations;
+
+	private long startTime;
+	private int head;
+	private int size;
+	private int stride;
+	private long offered;
+
+	// Most recent record, kept outside the arrays so that it survives sampling
+	private boolean hasLatest;
+	private boolean latestStored;
+	private long latestTime;
+	private int latestObjective;
+	private int latestHeuristic;
+	private long latestIteration;
+
+	public ImprovementTrace(int capacity, SamplingPolicy policy) {
+
+		this.policy = policy;
+		this.times = new long[capacity];
+		this.objectives = new int[capacity];
+		this.heuristics = new int[capacity];
+		this.iterations = new long[capacity];
+		clear();
+	}
+
+	// Discards all records and restarts the clock
+	public synchronized void clear() {
+
+		startTime = System.nanoTime();
+		head = 0;
+		size = 0;
+		stride = 1;
+		offered = 0;
+		hasLatest = false;
+	}
+
+	/**
+	 * Records a new best solution.
+	 *
+	 * @param nanoTime The value of {@link System#nanoTime()} when it was found.
+	 * @param objective Its objective function value.
+	 * @param heuristic The heuristic that produced it, or {@link #INITIALISATION}.
+	 * @param iteration The number of heuristic applications so far.
+	 */
+	public synchronized void record(long nanoTime, int objective, int heuristic, long iteration) {
+
+		hasLatest = true;
+		latestTime = nanoTime;
+		latestObjective = objective;
+		latestHeuristic = heuristic;
+		latestIteration = iteration;
+		latestStored = false;
+
+		long index = offered++;
+		if (index % stride != 0) {
+			return;
+		}
+
+		if (size == times.length) {
+			switch (policy) {
+				case KEEP_FIRST:
+					return;
+				case DECIMATE:
+					decimate();
+					if (index % stride != 0) {
+						return;
+					}
+					break;
+				case OVERWRITE_OLDEST:
+					head = (head + 1) % times.length;
+					size--;
+					break;
+			}
+		}
+
+		int slot = (head + size) % times.length;
+		times[slot] = nanoTime;
+		objectives[slot] = objective;
+		heuristics[slot] = heuristic;
+		iterations[slot] = iteration;
+		size++;
+		latestStored = true;
+	}
+
+	// Helper method to keep every other record in place and halve the recording rate
+	private void decimate() {
+
+		int kept = 0;
+		for (int i = 0; i < size; i += 2) {
+			int from = (head + i) % times.length;
+			times[kept] = times[from];
+			objectives[kept] = objectives[from];
+			heuristics[kept] = heuristics[from];
+			iterations[kept] = iterations[from];
+			kept++;
+		}
+		head = 0;
+		size = kept;
+		stride *= 2;
+	}
+
+	// Gets the number of records held, including the most recent one
+	public synchronized int size() {
+
+		return size + (hasLatest && !latestStored ? 1 : 0);
+	}
+
+	// Gets the total number of improvements recorded since the trace was cleared
+	public synchronized long getNumberOfImprovements() {
+
+		return offered;
+	}
+
+	/**
+	 * Writes the trace as CSV with a header row; times are nanoseconds since the trace was cleared.
+	 * The records are copied immediately and written by the shared {@link SolutionWriter}, so this can
+	 * be called while the search is still running.
+	 */
+	public void exportCsv(Path path) {
+
+		ImprovementTrace snapshot = snapshot();
+		SolutionWriter.getShared().write(path, snapshot::writeCsv);
+	}
+
+	/**
+	 * Writes the trace as {@link #BINARY_MAGIC}, {@link #BINARY_VERSION} and the record count, followed by one
+	 * (long time, int objective, int heuristic, long iteration) record each, all little-endian.
+	 */
+	public void exportBinary(Path path) {
+
+		ImprovementTrace snapshot = snapshot();
+		SolutionWriter.getShared().write(path, snapshot::writeBinary);
+	}
+
+	// Helper method to copy the records in order into a new, compact trace
+	private synchronized ImprovementTrace snapshot() {
+
+		ImprovementTrace copy = new ImprovementTrace(Math.max(1, size()), policy);
+		copy.startTime = startTime;
+		for (int i = 0; i < size; i++) {
+			int from = (head + i) % times.length;
+			copy.append(times[from], objectives[from], heuristics[from], iterations[from]);
+		}
+		if (hasLatest && !latestStored) {
+			copy.append(latestTime, latestObjective, latestHeuristic, latestIteration);
+		}
+
+		return copy;
+	}
+
+	// Helper method to append a record to a trace that still has room
+	private void append(long time, int objective, int heuristic, long iteration) {
+
+		times[size] = time;
+		objectives[size] = objective;
+		heuristics[size] = heuristic;
+		iterations[size] = iteration;
+		size++;
+	}
+
+	private void writeCsv(ChannelOutput out) throws IOException {
+
+		out.writeAscii("nanoseconds,objective,heuristic,iteration\n");
+		for (int i = 0; i < size; i++) {
+			out.writeDecimal(times[i] - startTime);
+			out.writeByte(',');
+			out.writeDecimal(objectives[i]);
+			out.writeByte(',');
+			out.writeDecimal(heuristics[i]);
+			out.writeByte(',');
+			out.writeDecimal(iterations[i]);
+			out.writeByte('\n');
+		}
+	}
+
+	private void writeBinary(ChannelOutput out) throws IOException {
+
+		out.writeInt(BINARY_MAGIC);
+		out.writeInt(BINARY_VERSION);
+		out.writeInt(size);
+		for (int i = 0; i < size; i++) {
+			out.writeLong(times[i] - startTime);
+			out.writeInt(objectives[i]);
+			out.writeInt(heuristics[i]);
+			out.writeLong(iterations[i]);
+		}
+	}
+}
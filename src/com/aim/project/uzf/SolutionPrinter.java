@@ -1,53 +1,42 @@
 package com.aim.project.uzf;
 
 
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.OutputStream;
-import java.io.PrintStream;
-import java.util.Iterator;
+import java.nio.file.Path;
 import java.util.List;
 
 import com.aim.project.uzf.instance.Location;
+import com.aim.project.uzf.output.SolutionWriter;
+import com.aim.project.uzf.output.TourFormat;
 
 public class SolutionPrinter {
 
-	private final String strOutputFilePath;
-	
-	public SolutionPrinter(String strOutputFilePath) {
-		
-		this.strOutputFilePath = strOutputFilePath;
-	}
-	
-	/**
-	 * 
-	 * @param loRouteLocations The array of Locations ordered in route order.
-	 */
-	public void printSolution(List<Location> loRouteLocations) {
+	private final Path outputFilePath;
 
-		OutputStream os;
-		try {
-			os = new FileOutputStream(strOutputFilePath);
-			PrintStream printStream = new PrintStream(os);
+	private final TourFormat format;
 
-			Iterator<Location> it = loRouteLocations.iterator();
-			Location loc;
+	public SolutionPrinter(String strOutputFilePath) {
 
-			if(it.hasNext()) {
+		this(Path.of(strOutputFilePath), TourFormat.TEXT);
+	}
 
-				loc = it.next();
-				printStream.print(loc.iLocationId());
-			}
+	public SolutionPrinter(Path outputFilePath, TourFormat format) {
 
-			while(it.hasNext()) {
+		this.outputFilePath = outputFilePath;
+		this.format = format;
+	}
 
-				loc = it.next();
-				printStream.print("-" + loc.iLocationId());
-			}
-			printStream.close();
-		} catch (FileNotFoundException e) {
+	/**
+	 * Queues the route to be written by the shared {@link SolutionWriter}, so the caller never waits on the file.
+	 *
+	 * @param loRouteLocations The array of Locations ordered in route order.
+	 */
+	public void printSolution(List<Location> loRouteLocations) {
 
-			e.printStackTrace();
+		int[] route = new int[loRouteLocations.size()];
+		for (int i = 0; i < route.length; i++) {
+			route[i] = loRouteLocations.get(i).iLocationId();
 		}
+
+		SolutionWriter.getShared().writeTour(outputFilePath, route, format);
 	}
 }
@@ -2,14 +2,15 @@ package com.aim.project.uzf;
 
 import com.aim.project.uzf.heuristics.*;
 import com.aim.project.uzf.instance.InitialisationMode;
+import com.aim.project.uzf.instance.InstanceCatalog;
 import com.aim.project.uzf.instance.Location;
-import com.aim.project.uzf.instance.reader.UAVInstanceReader;
 import com.aim.project.uzf.interfaces.*;
 
 import AbstractClasses.ProblemDomain;
+import com.aim.project.uzf.solution.EdgeHash;
+import com.aim.project.uzf.solution.MoveJournal;
 import com.aim.project.uzf.solution.UZFSolution;
 
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -27,6 +28,36 @@ public class UZFDomain extends ProblemDomain implements Visualisable {
 
 	private UAVSolutionInterface bestSolution;
 	private UZFSolution[] solutionMemory = new UZFSolution[2];
+	private InstanceCatalog catalog = InstanceCatalog.getDefault();
+	private int loadedInstanceId = -1;
+
+	// Records every new best solution; cheap enough to stay enabled
+	private ImprovementTrace improvementTrace = new ImprovementTrace(ImprovementTrace.DEFAULT_CAPACITY,
+			ImprovementTrace.SamplingPolicy.DECIMATE);
+	private int lastHeuristic = ImprovementTrace.INITIALISATION;
+	private long iteration = 0;
+
+	// Construction method used by initialiseSolution, with the time spent in each method
+	private InitialisationMode initialisationMode = InitialisationMode.CONSTRUCTIVE;
+	private final long[] constructionTimeRecord = new long[InitialisationMode.values().length];
+	private final int[] constructionCallRecord = new int[InitialisationMode.values().length];
+
+	// Nanoseconds spent in each heuristic, which heuristicCallTimeRecord holds rounded down to milliseconds
+	private long[] heuristicCallNanoRecord;
+	private long lastHeuristicRuntime;
+
+	// In-place mode: a heuristic that records its moves is applied to the current solution itself, which then also
+	// fills the candidate slot, and the journal restores the current solution only if the candidate is discarded
+	private boolean inPlaceMode = true;
+	private final MoveJournal moveJournal = new MoveJournal(MoveJournal.DEFAULT_CAPACITY);
+	// Slots sharing the journalled solution, or -1 if none do, and the objective value of the current solution
+	private int journalCurrentIndex = -1;
+	private int journalCandidateIndex = -1;
+	private int journalCurrentValue;
+
+	// Tours remembered by the fitness cache in front of the objective function, 0 to evaluate every tour
+	private int fitnessCacheCapacity = Integer.getInteger(CachedObjectiveFunction.CACHE_SIZE_PROPERTY, 0);
+	private CachedObjectiveFunction fitnessCache;
 
     public UZFDomain(long seed) {
 		// Set default memory size and create the array of low-level heuristics
@@ -36,7 +67,8 @@ public class UZFDomain extends ProblemDomain implements Visualisable {
 		this.heuristics = new ArrayList<>();
 
 		/* Add heuristics - {0 : Adjacent Swap, 1 : DHC, 2 : Next Descent, 3 : PMX - Partially Mapped Crossover,
-			4 : Reinsertion, 5 : Inversion, 6 : Steepest Descent, 7 : CX - Cycle Crossover } */
+			4 : Reinsertion, 5 : Inversion, 6 : Steepest Descent, 7 : CX - Cycle Crossover, 8 : Iterated Local Search,
+			9 : Tabu Search, 10 : Guided Local Search } */
 		this.heuristics.add(new AdjacentSwap(super.rng));
 		this.heuristics.add(new DavissHillClimbing(super.rng));
 		this.heuristics.add(new NextDescent(super.rng));
@@ -45,6 +77,11 @@ public class UZFDomain extends ProblemDomain implements Visualisable {
 		this.heuristics.add(new Inversion(super.rng));
 		this.heuristics.add(new SteepestDescentHC(super.rng));
 		this.heuristics.add(new CX(super.rng));
+		this.heuristics.add(new IteratedLocalSearch(super.rng));
+		this.heuristics.add(new TabuSearch(super.rng));
+		this.heuristics.add(new GuidedLocalSearch(super.rng));
+
+		this.heuristicCallNanoRecord = new long[heuristics.size()];
 	}
 
 	// Apply heuristic and return the objective value of the candidate solution
@@ -54,22 +91,31 @@ public class UZFDomain extends ProblemDomain implements Visualisable {
 		// Retrieve the heuristic based on the index
 		HeuristicInterface heuristic = heuristics.get(hIndex);
 
-		// If the current index is different from the candidate index, copy the solution
-		if (currentIndex != candidateIndex) {
+		// Apply the heuristic in place if it records its moves, otherwise copy the current solution first
+		boolean inPlace = inPlaceMode && currentIndex != candidateIndex && heuristic.recordsMoves();
+		if (inPlace) {
+			beginInPlaceMove(currentIndex, candidateIndex);
+		} else if (currentIndex != candidateIndex) {
 			copySolution(currentIndex, candidateIndex);
+		} else {
+			separateJournalledSolution();
 		}
 
 		// Record the start time and end time
 		// Apply the heuristic to the candidate solution and get the objective value
-		long startTime = System.currentTimeMillis();
+		long startTime = System.nanoTime();
 		double oSolutionValue = heuristic.apply(solutionMemory[candidateIndex], depthOfSearch, intensityOfMutation);
-		long endTime = System.currentTimeMillis();
+		long endTime = System.nanoTime();
+		if (inPlace) {
+			solutionMemory[candidateIndex].getSolutionRepresentation().setMoveJournal(null);
+		}
+		lastHeuristic = hIndex;
+		iteration++;
 
 		// Update the best solution based on the candidate index
 		updateBestSolution(candidateIndex);
 		// Increment the heuristic call count and record the time taken
-		super.heuristicCallRecord[hIndex]++;
-		super.heuristicCallTimeRecord[hIndex] += (int) (endTime - startTime);
+		recordHeuristicCall(hIndex, endTime - startTime);
 
 		// Return the objective value of the candidate solution
 		return oSolutionValue;
@@ -81,6 +127,7 @@ public class UZFDomain extends ProblemDomain implements Visualisable {
 
 		// Retrieve the heuristic based on the index
 		HeuristicInterface heuristic1 = heuristics.get(hIndex);
+		separateJournalledSolution();
 
 		// If the candidate solution is null, initialise it
 		if (solutionMemory[candidateIndex] == null) {
@@ -92,16 +139,17 @@ public class UZFDomain extends ProblemDomain implements Visualisable {
 
 		// Record the start and end time
 		// Apply the crossover heuristic to the parent solutions and get the objective value
-		long startTime = System.currentTimeMillis();
+		long startTime = System.nanoTime();
 		double oSolutionValue = heuristic2.apply(solutionMemory[parent1Index], solutionMemory[parent2Index],
 				solutionMemory[candidateIndex], depthOfSearch, intensityOfMutation);
-		long endTime = System.currentTimeMillis();
+		long endTime = System.nanoTime();
+		lastHeuristic = hIndex;
+		iteration++;
 
 		// Update the best solution based on the candidate index
 		updateBestSolution(candidateIndex);
 		// Increment the heuristic call count and record the time taken
-		super.heuristicCallRecord[hIndex]++;
-		super.heuristicCallTimeRecord[hIndex] += (int) (endTime - startTime);
+		recordHeuristicCall(hIndex, endTime - startTime);
 
 		// Return the objective value of the candidate solution
 		return oSolutionValue;
@@ -113,20 +161,47 @@ public class UZFDomain extends ProblemDomain implements Visualisable {
 
 		// Get the representation of the best solution as an array of integers
 		int[] bestRepresentation = this.bestSolution.getSolutionRepresentation().getSolutionRepresentation();
+		// Report the enclosure IDs of the instance file in case the instance was renumbered
+		int[] originalRepresentation = new int[bestRepresentation.length];
+		for (int i = 0; i < bestRepresentation.length; i++) {
+			originalRepresentation[i] = this.getLoadedInstance().getOriginalEnclosureId(bestRepresentation[i]);
+		}
 		// Convert the array to a string and return
-		return Arrays.toString(bestRepresentation);
+		return Arrays.toString(originalRepresentation);
 	}
 
-	// Compares solutions, checking if they are equal
+	// Compares solutions, checking if they follow the same route (in either direction)
 	@Override
 	public boolean compareSolutions(int a, int b) {
 
+		// Different edge hashes mean different routes, so only equal hashes need the exact check
+		if (getEdgeHash(a) != getEdgeHash(b)) {
+			return false;
+		}
+
 		// Get the solution representations for the specified indices
+		separateJournalledSolution();
 		int[] aiSolutionA = solutionMemory[a].getSolutionRepresentation().getSolutionRepresentation();
 		int[] aiSolutionB = solutionMemory[b].getSolutionRepresentation().getSolutionRepresentation();
 
 		// Compare the two solution representations and return the result
-		return Arrays.equals(aiSolutionA, aiSolutionB);
+		return EdgeHash.sameRoute(aiSolutionA, aiSolutionB);
+	}
+
+	/**
+	 * Solutions following the same route, in either direction, have the same edge hash. Hyper-heuristics can use it
+	 * to detect duplicates in their memory without comparing whole tours.
+	 *
+	 * @param index The index of the solution in memory.
+	 * @return The {@link EdgeHash} of the solution.
+	 */
+	public long getEdgeHash(int index) {
+
+		// The current solution of a pending in-place move differs from the shared one by the journalled moves
+		if (index == journalCurrentIndex) {
+			return solutionMemory[index].getSolutionRepresentation().getEdgeHash() ^ moveJournal.getEdgeHashChange();
+		}
+		return solutionMemory[index].getSolutionRepresentation().getEdgeHash();
 	}
 
 	// Copies solution from one index to another
@@ -137,6 +212,21 @@ public class UZFDomain extends ProblemDomain implements Visualisable {
 		//			That is, that if we apply a heuristic to the solution in index 'b',
 		//			then it does not modify the solution in index 'a' or vice-versa.
 
+		// Both slots of a pending in-place move share one solution, so slot 'b' always gets a clone below
+		if (journalCurrentIndex >= 0) {
+			if (a == journalCandidateIndex && b == journalCurrentIndex) {
+				// The candidate is accepted: the journalled solution already is the new current solution
+				moveJournal.clear();
+				endInPlaceMove();
+			} else if (a == journalCurrentIndex && b == journalCandidateIndex) {
+				// The candidate is reset to the current solution
+				rollbackJournal();
+				endInPlaceMove();
+			} else if (a == journalCurrentIndex || b == journalCurrentIndex || b == journalCandidateIndex) {
+				separateJournalledSolution();
+			}
+		}
+
 		// clone the solution from index 'a' to index 'b'
 		solutionMemory[b] = (UZFSolution) this.solutionMemory[a].clone();
 	}
@@ -152,6 +242,10 @@ public class UZFDomain extends ProblemDomain implements Visualisable {
 	@Override
 	public double getFunctionValue(int index) {
 
+		// The current solution of a pending in-place move is only restored once needed
+		if (index == journalCurrentIndex) {
+			return journalCurrentValue;
+		}
 		return this.solutionMemory[index].getObjectiveFunctionValue();
 	}
 
@@ -190,16 +284,69 @@ public class UZFDomain extends ProblemDomain implements Visualisable {
 	@Override
 	public int getNumberOfHeuristics() {
 
-		// has to be hard-coded due to the design of the HyFlex framework
-		return 8;
+		// HyFlex asks before the heuristics are created, when there are only the 11 built-in ones
+		return heuristics == null ? 11 : heuristics.size();
+	}
+
+	/**
+	 * Registers a heuristic after the built-in ones, e.g. a {@link CompositeHeuristic}. Hyper-heuristics see it
+	 * from their next run, as they read the number of heuristics when they start.
+	 *
+	 * @param heuristic The heuristic to register.
+	 * @return The index to apply the heuristic by.
+	 */
+	public int addHeuristic(HeuristicInterface heuristic) {
+
+		if (instance != null) {
+			prepareHeuristic(heuristic, fitnessCache != null ? fitnessCache : instance.getUZFObjectiveFunction());
+		}
+		heuristics.add(heuristic);
+
+		// Grow the call records to match
+		int numberOfHeuristics = heuristics.size();
+		super.heuristicCallRecord = Arrays.copyOf(super.heuristicCallRecord, numberOfHeuristics);
+		super.heuristicCallTimeRecord = Arrays.copyOf(super.heuristicCallTimeRecord, numberOfHeuristics);
+		heuristicCallNanoRecord = Arrays.copyOf(heuristicCallNanoRecord, numberOfHeuristics);
+
+		return numberOfHeuristics - 1;
+	}
+
+	// Helper method to give a heuristic what it needs of the loaded instance, and to start it afresh on it
+	private void prepareHeuristic(HeuristicInterface heuristic, ObjectiveFunctionInterface function) {
+
+		heuristic.setObjectiveFunction(function);
+		heuristic.setNeighbourLists(instance.getNeighbourLists());
+		heuristic.reset();
 	}
 
-	// Return the total number of instances
+	/**
+	 * Registers a {@link CompositeHeuristic} applying registered heuristics back-to-back, e.g.
+	 * {@code addCompositeHeuristic(5, 2)} for Inversion followed by Next Descent.
+	 *
+	 * @param hIndices The indices of the heuristics to apply, in order.
+	 * @return The index to apply the composite heuristic by.
+	 */
+	public int addCompositeHeuristic(int... hIndices) {
+
+		HeuristicInterface[] steps = new HeuristicInterface[hIndices.length];
+		for (int i = 0; i < hIndices.length; i++) {
+			steps[i] = heuristics.get(hIndices[i]);
+		}
+
+		return addHeuristic(new CompositeHeuristic(steps));
+	}
+
+	// Return the total number of instances found by the catalog
 	@Override
 	public int getNumberOfInstances() {
 
-		// has to be hard-coded due to the design of the HyFlex framework
-		return 7;
+		return catalog.getNumberOfInstances();
+	}
+
+	// Sets the catalog used to resolve instance IDs
+	public void setInstanceCatalog(InstanceCatalog catalog) {
+
+		this.catalog = catalog;
 	}
 
 	// Initialises a solution at a specified index
@@ -207,65 +354,59 @@ public class UZFDomain extends ProblemDomain implements Visualisable {
 	public void initialiseSolution(int index) {
 		
 		// Make sure that you also update the best solution!
-		// Creates solution using the RANDOM or CONSTRUCTIVE mode
-		solutionMemory[index] = instance.createSolution(InitialisationMode.CONSTRUCTIVE);
+		// Creates solution using the configured initialisation mode and records how long it took
+		if (index == journalCurrentIndex || index == journalCandidateIndex) {
+			separateJournalledSolution();
+		}
+		long startTime = System.nanoTime();
+		UZFSolution solution = instance.createSolution(initialisationMode);
+		if (fitnessCache != null) {
+			// Re-evaluations of the solution and its copies go through the cache as well
+			solution = new UZFSolution(solution.getSolutionRepresentation(), solution.getObjectiveFunctionValue(),
+					fitnessCache);
+		}
+		solutionMemory[index] = solution;
+		constructionTimeRecord[initialisationMode.ordinal()] += System.nanoTime() - startTime;
+		constructionCallRecord[initialisationMode.ordinal()]++;
+		lastHeuristic = ImprovementTrace.INITIALISATION;
 		updateBestSolution(index);
 	}
 
 	@Override
 	public void loadInstance(int instanceId) {
-		// Load the instance (referenced by ID) from file
-		String file = "";
-		switch (instanceId) {
-			case 0: {
-				file = "instances/uzf/square.uzf";
-				break;
-			}
-			case 1: {
-				file = "instances/uzf/libraries-15.uzf";
-				break;
-			}
-			case 2: {
-				file = "instances/uzf/carparks-40.uzf";
-				break;
-			}
-			case 3: {
-				file = "instances/uzf/tramstops-85.uzf";
-				break;
-			}
-			case 4: {
-				file = "instances/uzf/grid.uzf";
-				break;
-			}
-			case 5: {
-				file = "instances/uzf/clustered-enclosures.uzf";
-				break;
-			}
-			case 6: {
-				file = "instances/uzf/chatgpt-instance-100-enclosures.uzf";
-				break;
-			}
-			default: {
-				System.err.println("UZF Domain does not support instance id " + instanceId);
-				System.exit(-1);
-			}
-		}
-
-		System.out.println("Calling read: "+file);
-		UAVInstanceReader reader = new UAVInstanceReader();
-		instance = reader.readUZFInstance(Path.of(file), rng);
+		// Load the instance (referenced by ID) from the catalog, which only parses it on first use
+		instance = catalog.getInstance(instanceId, rng);
+		loadedInstanceId = instanceId;
+		improvementTrace.clear();
 
 		// Set the objective function within each low-level heuristic
         ObjectiveFunctionInterface function = instance.getUZFObjectiveFunction();
+		fitnessCache = fitnessCacheCapacity > 0 ? new CachedObjectiveFunction(function, fitnessCacheCapacity) : null;
+		if (fitnessCache != null) {
+			function = fitnessCache;
+		}
 		for (HeuristicInterface heuristic : heuristics) {
-			heuristic.setObjectiveFunction(function);
+			prepareHeuristic(heuristic, function);
 		}
 	}
 
+	// Sets the number of tours the fitness cache of the next loaded instance remembers, 0 to disable it
+	public void setFitnessCacheCapacity(int fitnessCacheCapacity) {
+
+		this.fitnessCacheCapacity = fitnessCacheCapacity;
+	}
+
+	// Gets the fitness cache of the loaded instance, with its hit-rate statistics, or null if it is disabled
+	public CachedObjectiveFunction getFitnessCache() {
+
+		return fitnessCache;
+	}
+
 	// Sets the solution memory size
 	@Override
 	public void setMemorySize(int size) {
 		// Create a temporary array to hold the updated solution memory
+		separateJournalledSolution();
 		UZFSolution[] tempMemory = new UZFSolution[size];
 
 		// Copy the existing solution memory to the temporary array, up to the minimum of either the current size or the new size
@@ -283,6 +424,7 @@ public class UZFDomain extends ProblemDomain implements Visualisable {
 	public String solutionToString(int index) {
 
 		// Get the solution representations for the specified indices
+		separateJournalledSolution();
 		int[] solutionRepresentation = this.solutionMemory[index].getSolutionRepresentation().getSolutionRepresentation();
 		return Arrays.toString(solutionRepresentation);
 	}
@@ -300,7 +442,9 @@ public class UZFDomain extends ProblemDomain implements Visualisable {
 		// If the best solution is not better than the current solution, update it
 		if (this.bestSolution == null ||
 				this.solutionMemory[index].getObjectiveFunctionValue() < this.getBestSolutionValue()) {
-			this.bestSolution = this.solutionMemory[index];
+			this.bestSolution = this.solutionMemory[index].clone();
+			improvementTrace.record(System.nanoTime(), this.bestSolution.getObjectiveFunctionValue(),
+					lastHeuristic, iteration);
 		}
 	}
 
@@ -337,6 +481,133 @@ public class UZFDomain extends ProblemDomain implements Visualisable {
 		return route;
 	}
 
+	// Helper method to count a heuristic call and add its runtime in nanoseconds
+	private void recordHeuristicCall(int hIndex, long runtime) {
+
+		lastHeuristicRuntime = runtime;
+		heuristicCallNanoRecord[hIndex] += runtime;
+		super.heuristicCallRecord[hIndex]++;
+		super.heuristicCallTimeRecord[hIndex] = (int) (heuristicCallNanoRecord[hIndex] / 1_000_000);
+	}
+
+	// Gets the nanoseconds the last applied heuristic took
+	public long getLastHeuristicRuntime() {
+
+		return lastHeuristicRuntime;
+	}
+
+	// Gets the total nanoseconds spent in each heuristic
+	public long[] getHeuristicCallNanoRecord() {
+
+		return heuristicCallNanoRecord.clone();
+	}
+
+	// Helper method to let the current and candidate slots share the current solution for an in-place move
+	private void beginInPlaceMove(int currentIndex, int candidateIndex) {
+
+		if (currentIndex == journalCurrentIndex && candidateIndex == journalCandidateIndex) {
+			// The previous candidate was discarded, so restore the current solution it was made from
+			rollbackJournal();
+		} else if (currentIndex == journalCandidateIndex && candidateIndex == journalCurrentIndex) {
+			// The previous candidate was accepted by swapping the slots, so its moves are kept
+			moveJournal.clear();
+		} else {
+			separateJournalledSolution();
+		}
+
+		UZFSolution solution = solutionMemory[currentIndex];
+		solutionMemory[candidateIndex] = solution;
+		journalCurrentIndex = currentIndex;
+		journalCandidateIndex = candidateIndex;
+		journalCurrentValue = solution.getObjectiveFunctionValue();
+		moveJournal.begin(solution.getSolutionRepresentation().getSolutionRepresentation());
+		solution.getSolutionRepresentation().setMoveJournal(moveJournal);
+	}
+
+	// Helper method to undo the pending moves, leaving the current solution in both slots
+	private void rollbackJournal() {
+
+		undoJournal(solutionMemory[journalCandidateIndex]);
+	}
+
+	// Helper method to undo the pending moves on the shared solution, including their effect on its edge hash
+	private void undoJournal(UZFSolution solution) {
+
+		long edgeHashChange = moveJournal.getEdgeHashChange();
+		moveJournal.rollback();
+		solution.getSolutionRepresentation().updateEdgeHash(edgeHashChange);
+		solution.setObjectiveFunctionValue(journalCurrentValue);
+	}
+
+	// Helper method to give the current and candidate slots of a pending in-place move their own solutions again
+	private void separateJournalledSolution() {
+
+		if (journalCurrentIndex < 0) {
+			return;
+		}
+
+		UZFSolution solution = solutionMemory[journalCandidateIndex];
+		solutionMemory[journalCandidateIndex] = (UZFSolution) solution.clone();
+		undoJournal(solution);
+		solutionMemory[journalCurrentIndex] = solution;
+		endInPlaceMove();
+	}
+
+	// Helper method to forget the pending in-place move once its slots are about to hold their own solutions
+	private void endInPlaceMove() {
+
+		journalCurrentIndex = -1;
+		journalCandidateIndex = -1;
+	}
+
+	// Sets whether heuristics that record their moves are applied in place instead of to a copy
+	public void setInPlaceMode(boolean inPlaceMode) {
+
+		separateJournalledSolution();
+		this.inPlaceMode = inPlaceMode;
+	}
+
+	public boolean isInPlaceMode() {
+
+		return inPlaceMode;
+	}
+
+	// Sets the construction method used by initialiseSolution
+	public void setInitialisationMode(InitialisationMode initialisationMode) {
+
+		this.initialisationMode = initialisationMode;
+	}
+
+	public InitialisationMode getInitialisationMode() {
+
+		return initialisationMode;
+	}
+
+	// Gets the mean time in nanoseconds that initialiseSolution has taken with the given mode, or 0 if it was not used
+	public long getMeanConstructionTime(InitialisationMode mode) {
+
+		int calls = constructionCallRecord[mode.ordinal()];
+		return calls == 0 ? 0 : constructionTimeRecord[mode.ordinal()] / calls;
+	}
+
+	// Gets the trace of when each best solution was found
+	public ImprovementTrace getImprovementTrace() {
+
+		return improvementTrace;
+	}
+
+	// Replaces the trace, e.g. to change its capacity or sampling policy
+	public void setImprovementTrace(ImprovementTrace improvementTrace) {
+
+		this.improvementTrace = improvementTrace;
+	}
+
+	// Gets the ID of the instance that is currently loaded
+	public int getLoadedInstanceId() {
+
+		return loadedInstanceId;
+	}
+
 	public UAVSolutionInterface getBestSolution() {
 
 		return bestSolution;
@@ -1,6 +1,13 @@
 package com.aim.project.uzf;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.aim.project.uzf.instance.DistanceKernel;
 import com.aim.project.uzf.instance.Location;
+import com.aim.project.uzf.instance.PackedDistanceMatrix;
+import com.aim.project.uzf.interfaces.DistanceStoreInterface;
 import com.aim.project.uzf.interfaces.ObjectiveFunctionInterface;
 import com.aim.project.uzf.interfaces.UZFInstanceInterface;
 import com.aim.project.uzf.interfaces.SolutionRepresentationInterface;
@@ -9,19 +16,53 @@ import com.aim.project.uzf.interfaces.SolutionRepresentationInterface;
 /**
  * @author Warren G Jackson
  * @since 1.0.0 (22/03/2024)
+ *
+ * The evaluation context of an instance: it holds everything evaluation reads in final fields and never changes
+ * afterwards, so one object per instance (see {@link UZFInstanceInterface#getUZFObjectiveFunction()}) is shared by
+ * every heuristic and thread.
  */
 public class UZFObjectiveFunction implements ObjectiveFunctionInterface {
 
-	private final UZFInstanceInterface oInstance;
+	// "auto" (default) to choose a distance store by size, "none" to always calculate distances from coordinates
+	public static final String DISTANCE_STORE_PROPERTY = "uzf.distances.store";
+	// Directory of memory-mapped distance stores shared between JVMs; direct buffers are used when unset
+	public static final String DISTANCE_DIRECTORY_PROPERTY = "uzf.distances.dir";
+
+	// Share of the maximum heap size that all live packed distance stores together may take up
+	public static final double DISTANCE_STORE_MEMORY_FRACTION = 0.25;
+
+	private final DistanceStoreInterface oDistanceStore;
+	private final int[] aiCoordinates;
+	private final int iFoodPreparationAreaX;
+	private final int iFoodPreparationAreaY;
+	// Cost between the food preparation area and each enclosure
+	private final int[] aiFoodPreparationAreaCosts;
 
 	public UZFObjectiveFunction(UZFInstanceInterface oInstance) {
-		this.oInstance = oInstance;
+		this.oDistanceStore = oInstance.getDistanceStore();
+		this.aiCoordinates = oInstance.getEnclosureCoordinates();
+		Location oFoodPreparationArea = oInstance.getLocationOfFoodPreparationArea();
+		this.iFoodPreparationAreaX = oFoodPreparationArea.x();
+		this.iFoodPreparationAreaY = oFoodPreparationArea.y();
+
+		this.aiFoodPreparationAreaCosts = new int[oInstance.getNumberOfLocations()];
+		for (int i = 0; i < aiFoodPreparationAreaCosts.length; i++) {
+			aiFoodPreparationAreaCosts[i] = DistanceKernel.ceilLength(aiCoordinates[2 * i] - iFoodPreparationAreaX,
+					aiCoordinates[2 * i + 1] - iFoodPreparationAreaY);
+		}
 	}
 
 	@Override
 	public int getObjectiveFunctionValue(SolutionRepresentationInterface oSolution) {
 
 		int[] solutionRepresentation = oSolution.getSolutionRepresentation();
+
+		// Without precomputed distances the whole tour is evaluated by the kernel selected at startup
+		if (oDistanceStore == null) {
+			return EvaluationKernel.getDefault().getTourCost(aiCoordinates, iFoodPreparationAreaX,
+					iFoodPreparationAreaY, solutionRepresentation);
+		}
+
 		int totalDistance = 0;
 
 		// Add the distance between the first location and food prep area
@@ -45,30 +86,69 @@ public class UZFObjectiveFunction implements ObjectiveFunctionInterface {
 	public int getCost(Location oLocationA, Location oLocationB) {
 
 		// Calculate distance between locations
-		double dx = oLocationA.x() - oLocationB.x();
-		double dy = oLocationA.y() - oLocationB.y();
-
-		return (int) Math.ceil(Math.sqrt((dx * dx) + (dy * dy)));
+		return DistanceKernel.ceilLength(oLocationA.x() - oLocationB.x(), oLocationA.y() - oLocationB.y());
 	}
 
 	@Override
 	public int getCost(int iLocationA, int iLocationB) {
 
-		// Retrieve the Location objects corresponding to the given location IDs
-		Location oLocationA = oInstance.getLocationForEnclosure(iLocationA);
-		Location oLocationB = oInstance.getLocationForEnclosure(iLocationB);
+		// Use the precomputed distances when the instance was loaded with them
+		if (oDistanceStore != null) {
+			return oDistanceStore.getCost(iLocationA, iLocationB);
+		}
 
-		return this.getCost(oLocationA, oLocationB);
+		// Read the coordinates of both locations straight from the interleaved coordinate array
+		return DistanceKernel.getCost(aiCoordinates, iLocationA, iLocationB);
 	}
 
 	@Override
 	public int getCostBetweenFoodPreparationAreaAnd(int iLocation) {
 
-		// Retrieve the Location objects corresponding to first location and food prep area
-		Location oLocation = oInstance.getLocationForEnclosure(iLocation);
-		Location oFoodPreparationArea = oInstance.getLocationOfFoodPreparationArea();
-		
-		return getCost(oLocation, oFoodPreparationArea);
+		// Precomputed when the objective function was created
+		return aiFoodPreparationAreaCosts[iLocation];
+	}
+
+	/**
+	 * Chooses where the distances of an instance are read from: the matrix loaded with the instance if there is one,
+	 * otherwise a {@link PackedDistanceMatrix} if its upper triangle fits into what is left of
+	 * {@value #DISTANCE_STORE_MEMORY_FRACTION} of the maximum heap size (which is also the default limit for direct
+	 * buffers) after the stores of other instances still alive, e.g. in the instance cache, otherwise none, so that
+	 * distances are calculated from the coordinates.
+	 *
+	 * @param oInstance The instance to choose the distance store for.
+	 * @return The distance store, or <code>null</code> to calculate distances from the coordinates.
+	 */
+	public static DistanceStoreInterface selectDistanceStore(UZFInstanceInterface oInstance) {
+
+		if (oInstance.getDistanceMatrix() != null) {
+			return oInstance.getDistanceMatrix();
+		}
+		if ("none".equals(System.getProperty(DISTANCE_STORE_PROPERTY, "auto"))) {
+			return null;
+		}
+
+		int[] aiCoordinates = oInstance.getEnclosureCoordinates();
+		long lRequiredBytes = PackedDistanceMatrix.getRequiredBytes(oInstance.getNumberOfLocations(),
+				PackedDistanceMatrix.elementTypeFor(aiCoordinates));
+		long lAvailableBytes = (long) (Runtime.getRuntime().maxMemory() * DISTANCE_STORE_MEMORY_FRACTION)
+				- PackedDistanceMatrix.getLiveDirectBytes();
+		if (lRequiredBytes > lAvailableBytes) {
+			return null;
+		}
+
+		String strDirectory = System.getProperty(DISTANCE_DIRECTORY_PROPERTY);
+		if (strDirectory != null) {
+			try {
+				Path directory = Files.createDirectories(Path.of(strDirectory));
+				return PackedDistanceMatrix.computeShared(aiCoordinates, directory.resolve(
+						Long.toHexString(PackedDistanceMatrix.fingerprint(aiCoordinates))
+								+ PackedDistanceMatrix.FILE_EXTENSION));
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+
+		return PackedDistanceMatrix.compute(aiCoordinates);
 	}
 
 }
@@ -19,6 +19,13 @@ public class AdjacentSwap extends HeuristicOperators implements HeuristicInterfa
 	@Override
 	public int apply(UAVSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
 
+		applyWithoutEvaluating(solution, depthOfSearch, intensityOfMutation);
+		return solution.getObjectiveFunctionValue();
+	}
+
+	@Override
+	public void applyWithoutEvaluating(UAVSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
+
 		// Calculate the internal number of swaps based on IOM in [0,1]
 		// Increase swaps by powers of two
 		int swapNumber = (int) Math.pow(2, Math.floor(intensityOfMutation/0.2));
@@ -30,15 +37,11 @@ public class AdjacentSwap extends HeuristicOperators implements HeuristicInterfa
 			// Random index to swap
 			int index = random.nextInt(solutionRepresentation.length); // excludes the last index
 			// Perform swap
-			swapAdjacent(solutionRepresentation, index);
-
-			// Sets the objective function value
-			solution.setObjectiveFunctionValue(f.getObjectiveFunctionValue(solution.getSolutionRepresentation()));
+			swapAdjacent(solution, index);
 		}
 
-		System.out.println("AS " + solution.getObjectiveFunctionValue());
-
-		return solution.getObjectiveFunctionValue();
+		// Only the final tour is evaluated, when its objective value is read
+		solution.invalidateObjectiveFunctionValue();
 	}
 
 	@Override
@@ -59,4 +62,10 @@ public class AdjacentSwap extends HeuristicOperators implements HeuristicInterfa
 		return false;
 	}
 
+	@Override
+	public boolean recordsMoves() {
+
+		return true;
+	}
+
 }
@@ -79,9 +79,10 @@ public class CX implements XOHeuristicInterface {
         }
 
 
+        // The child was written directly, so its edge hash has to be recalculated
+        c.getSolutionRepresentation().invalidateEdgeHash();
         // Sets the objective function value of the child
         c.setObjectiveFunctionValue(f.getObjectiveFunctionValue(c.getSolutionRepresentation()));
-        System.out.println("CX " + c.getObjectiveFunctionValue());
         return c.getObjectiveFunctionValue();
     }
 
@@ -118,4 +119,10 @@ public class CX implements XOHeuristicInterface {
 
         return false;
     }
+
+    @Override
+    public boolean recordsMoves() {
+
+        return false;
+    }
 }
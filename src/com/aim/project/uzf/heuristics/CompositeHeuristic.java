@@ -0,0 +1,112 @@
+package com.aim.project.uzf.heuristics;
+
+import com.aim.project.uzf.instance.NeighbourLists;
+import com.aim.project.uzf.interfaces.HeuristicInterface;
+import com.aim.project.uzf.interfaces.ObjectiveFunctionInterface;
+import com.aim.project.uzf.interfaces.UAVSolutionInterface;
+
+/**
+ * Applies a fixed sequence of heuristics back-to-back to the same solution, e.g. {@link Inversion} followed by
+ * {@link NextDescent}, so that the sequence is a single heuristic to the domain. Every step but the last is applied
+ * with {@link HeuristicInterface#applyWithoutEvaluating(UAVSolutionInterface, double, double)}, so a perturbation
+ * leaves the tour to be evaluated once, by the next step that needs its value or at the end, and the solution is
+ * copied, timed and compared with the best solution once for the whole sequence.
+ */
+public class CompositeHeuristic implements HeuristicInterface {
+
+	private final HeuristicInterface[] steps;
+
+	/**
+	 * @param steps The heuristics to apply, in order; none of them may be a crossover.
+	 */
+	public CompositeHeuristic(HeuristicInterface... steps) {
+
+		if (steps.length == 0) {
+			throw new IllegalArgumentException("A composite heuristic needs at least one step");
+		}
+		for (HeuristicInterface step : steps) {
+			if (step.isCrossover()) {
+				throw new IllegalArgumentException("A composite heuristic cannot contain a crossover");
+			}
+		}
+
+		this.steps = steps.clone();
+	}
+
+	@Override
+	public int apply(UAVSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
+
+		for (int i = 0; i < steps.length - 1; i++) {
+			steps[i].applyWithoutEvaluating(solution, depthOfSearch, intensityOfMutation);
+		}
+
+		return steps[steps.length - 1].apply(solution, depthOfSearch, intensityOfMutation);
+	}
+
+	@Override
+	public boolean isCrossover() {
+
+		return false;
+	}
+
+	@Override
+	public boolean usesIntensityOfMutation() {
+
+		for (HeuristicInterface step : steps) {
+			if (step.usesIntensityOfMutation()) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public boolean usesDepthOfSearch() {
+
+		for (HeuristicInterface step : steps) {
+			if (step.usesDepthOfSearch()) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public boolean recordsMoves() {
+
+		// The journal can only undo the whole sequence if it saw every step
+		for (HeuristicInterface step : steps) {
+			if (!step.recordsMoves()) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public void setObjectiveFunction(ObjectiveFunctionInterface oObjectiveFunction) {
+
+		for (HeuristicInterface step : steps) {
+			step.setObjectiveFunction(oObjectiveFunction);
+		}
+	}
+
+	@Override
+	public void setNeighbourLists(NeighbourLists oNeighbourLists) {
+
+		for (HeuristicInterface step : steps) {
+			step.setNeighbourLists(oNeighbourLists);
+		}
+	}
+
+	@Override
+	public void reset() {
+
+		for (HeuristicInterface step : steps) {
+			step.reset();
+		}
+	}
+}
@@ -44,25 +44,24 @@ public class DavissHillClimbing extends HeuristicOperators implements HeuristicI
 			// Iterate through each enclosure in the permutation
 			for (int j = 0; j < perm.length; j++) {
 				// Perform swap
-				swapAdjacent(solutionRepresentation, perm[j]);
+				swapAdjacent(solution, perm[j]);
 				// Gets the candidate cost
 				double candidateCost = f.getObjectiveFunctionValue(solution.getSolutionRepresentation());
 
 				// only accepts improving moves (strict improvement)
 				if (candidateCost < currentCost) {
 					// accepts
-					solution.setObjectiveFunctionValue(f.getObjectiveFunctionValue(solution.getSolutionRepresentation()));
+					solution.setObjectiveFunctionValue((int) candidateCost);
 					currentCost = candidateCost; // Reassigns current cost
 				}
 				else {
 					// reject
-					swapAdjacent(solutionRepresentation, perm[j]);
+					swapAdjacent(solution, perm[j]);
 				}
 			}
 
 		}
 
-		System.out.println("DBHC " + solution.getObjectiveFunctionValue());
 		return solution.getObjectiveFunctionValue();
 	}
 
@@ -100,4 +99,10 @@ public class DavissHillClimbing extends HeuristicOperators implements HeuristicI
 
 		return true;
 	}
+
+	@Override
+	public boolean recordsMoves() {
+
+		return true;
+	}
 }
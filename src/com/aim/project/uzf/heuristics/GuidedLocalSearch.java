@@ -0,0 +1,300 @@
+package com.aim.project.uzf.heuristics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.aim.project.uzf.instance.NeighbourLists;
+import com.aim.project.uzf.interfaces.HeuristicInterface;
+import com.aim.project.uzf.interfaces.UAVSolutionInterface;
+
+/**
+ * Guided local search, which escapes the local optima that the search keeps returning to by penalising their
+ * edges. 2-opt descends on the augmented cost, the objective value plus lambda times the penalties of the edges used,
+ * and at every local optimum the edges with the largest utility, cost / (1 + penalty), are penalised once more.
+ * <br>
+ * Moves join an enclosure to one of its nearest neighbours and are tried from a queue of enclosures whose don't-look
+ * bits are cleared, at the start and at the ends of the penalised edges and of the edges a move replaces. Both the
+ * change of the objective value and of the penalties of a move are calculated from the four edges it replaces, so a
+ * move is evaluated in O(1). Penalty counts are kept in an open-addressing table of edge keys, which lasts until the
+ * heuristic is reset for a new run, so later calls keep steering away from the same optima. Once an edge has been
+ * penalised {@value #MAX_PENALTY} times or {@value #MAX_PENALISED_EDGES} edges are penalised, every count is halved,
+ * which keeps the penalties and the table bounded while preserving which edges were penalised most.
+ * <br>
+ * The true objective value is tracked alongside, and the heuristic returns to the best tour it visited with that
+ * value, which is what the domain compares with its best solution.
+ */
+public class GuidedLocalSearch extends HeuristicOperators implements HeuristicInterface {
+
+	// Local optima penalised per level of depth of search
+	private static final int ROUNDS_PER_LEVEL = 4;
+	// Share of the mean edge cost that one penalty adds to the augmented cost
+	private static final double LAMBDA_FACTOR = 0.2;
+
+	private static final int INITIAL_PENALTY_CAPACITY = 1024;
+	// Bounds on the penalty of an edge and on the number of penalised edges, beyond which penalties decay
+	private static final int MAX_PENALTY = 64;
+	private static final int MAX_PENALISED_EDGES = 1 << 16;
+
+	private NeighbourLists neighbourLists;
+
+	// Penalty count of each penalised edge, a key of 0 marking an empty slot
+	private long[] penaltyKeys = new long[INITIAL_PENALTY_CAPACITY];
+	private int[] penaltyCounts = new int[INITIAL_PENALTY_CAPACITY];
+	private int penalisedEdges = 0;
+
+	// Reused between calls and grown with the instance: the position of each enclosure, the queue of enclosures to
+	// try, and the inversions made since the best tour
+	private int[] position = new int[0];
+	private final EnclosureQueue queue = new EnclosureQueue();
+	private int[] inversions = new int[16];
+
+	public GuidedLocalSearch(Random random) {
+
+		super(random);
+	}
+
+	@Override
+	public int apply(UAVSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
+
+		int[] tour = solution.getSolutionRepresentation().getSolutionRepresentation();
+		int n = tour.length;
+		int cost = solution.getObjectiveFunctionValue();
+		if (n < 3) {
+			return cost;
+		}
+
+		ensureCapacity(n);
+		for (int p = 0; p < n; p++) {
+			position[tour[p]] = p;
+		}
+
+		int rounds = (int) (Math.floor(depthOfSearch / 0.2) + 1) * ROUNDS_PER_LEVEL;
+		double lambda = LAMBDA_FACTOR * cost / (n + 1);
+		int neighbours = neighbourLists == null ? n - 1 : neighbourLists.getK();
+
+		// Every enclosure starts without its don't-look bit set
+		queue.clear();
+		for (int p = 0; p < n; p++) {
+			queue.add(tour[p]);
+		}
+
+		int bestCost = cost;
+		int applied = 0;
+		for (int round = 0; round < rounds; round++) {
+
+			// Descend on the augmented cost until no enclosure has an improving move
+			while (!queue.isEmpty()) {
+
+				int a = queue.poll();
+
+				for (int r = 0; r < neighbours; r++) {
+					int c = neighbourLists == null ? (a + 1 + r) % n : neighbourLists.getNeighbour(a, r);
+					int lo = Math.min(position[a], position[c]);
+					int hi = Math.max(position[a], position[c]);
+
+					// Invert between them so that they follow, or are followed by, each other
+					int x = lo + 1;
+					int y = hi;
+					if (x >= y || augmentedDelta(tour, x, y, lambda) >= 0) {
+						x = lo;
+						y = hi - 1;
+						if (x >= y || augmentedDelta(tour, x, y, lambda) >= 0) {
+							continue;
+						}
+					}
+
+					int before = at(tour, x - 1);
+					int after = at(tour, y + 1);
+					cost += cost(before, tour[y]) + cost(tour[x], after)
+							- cost(before, tour[x]) - cost(tour[y], after);
+					invert(solution, x, y);
+					for (int p = x; p <= y; p++) {
+						position[tour[p]] = p;
+					}
+
+					// Keep the inversions since the best tour so that they can be undone
+					if (cost < bestCost) {
+						bestCost = cost;
+						applied = 0;
+					} else {
+						if (applied + 2 > inversions.length) {
+							inversions = Arrays.copyOf(inversions, inversions.length * 2);
+						}
+						inversions[applied] = x;
+						inversions[applied + 1] = y;
+						applied += 2;
+					}
+
+					// The enclosures next to the replaced edges may now have improving moves
+					queue.add(a);
+					queue.add(before);
+					queue.add(tour[x]);
+					queue.add(tour[y]);
+					queue.add(after);
+					break;
+				}
+			}
+
+			// Penalise the edges of the local optimum with the largest utility
+			double maxUtility = -1;
+			for (int k = 0; k <= n; k++) {
+				int u = at(tour, k - 1);
+				int v = at(tour, k);
+				maxUtility = Math.max(maxUtility, (double) cost(u, v) / (1 + getPenalty(u, v)));
+			}
+			for (int k = 0; k <= n; k++) {
+				int u = at(tour, k - 1);
+				int v = at(tour, k);
+				if ((double) cost(u, v) / (1 + getPenalty(u, v)) == maxUtility) {
+					penalise(u, v);
+					queue.add(u);
+					queue.add(v);
+				}
+			}
+		}
+
+		// Return to the best tour visited, each inversion being its own inverse
+		for (int k = applied - 2; k >= 0; k -= 2) {
+			invert(solution, inversions[k], inversions[k + 1]);
+		}
+
+		solution.setObjectiveFunctionValue(bestCost);
+		return bestCost;
+	}
+
+	// Helper method to calculate the change in augmented cost of reversing the section from x to y
+	private double augmentedDelta(int[] tour, int x, int y, double lambda) {
+
+		int before = at(tour, x - 1);
+		int after = at(tour, y + 1);
+		int delta = cost(before, tour[y]) + cost(tour[x], after) - cost(before, tour[x]) - cost(tour[y], after);
+		int penaltyDelta = getPenalty(before, tour[y]) + getPenalty(tour[x], after) - getPenalty(before, tour[x])
+				- getPenalty(tour[y], after);
+
+		return delta + lambda * penaltyDelta;
+	}
+
+	// Helper method to get how often the edge between two enclosures was penalised
+	private int getPenalty(int a, int b) {
+
+		long key = edgeKey(a, b);
+		int mask = penaltyKeys.length - 1;
+		for (int slot = slot(key, mask); penaltyKeys[slot] != 0; slot = (slot + 1) & mask) {
+			if (penaltyKeys[slot] == key) {
+				return penaltyCounts[slot];
+			}
+		}
+
+		return 0;
+	}
+
+	// Helper method to add a penalty to the edge between two enclosures
+	private void penalise(int a, int b) {
+
+		long key = edgeKey(a, b);
+		int mask = penaltyKeys.length - 1;
+		for (int slot = slot(key, mask); penaltyKeys[slot] != 0; slot = (slot + 1) & mask) {
+			if (penaltyKeys[slot] == key) {
+				if (++penaltyCounts[slot] >= MAX_PENALTY) {
+					rehash(penaltyKeys.length, 1);
+				}
+				return;
+			}
+		}
+
+		if (penalisedEdges >= MAX_PENALISED_EDGES) {
+			rehash(penaltyKeys.length, 1);
+		}
+		// Keep the table at most half full, so that probes stay short
+		if (2 * (penalisedEdges + 1) > penaltyKeys.length) {
+			rehash(penaltyKeys.length * 2, 0);
+		}
+
+		insert(key, 1);
+		penalisedEdges++;
+	}
+
+	// Helper method to move the penalties into a table of the given size, dividing them by 2^shift and dropping those
+	// that fall to 0
+	private void rehash(int capacity, int shift) {
+
+		long[] keys = penaltyKeys;
+		int[] counts = penaltyCounts;
+		penaltyKeys = new long[capacity];
+		penaltyCounts = new int[capacity];
+		penalisedEdges = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != 0 && counts[i] >> shift > 0) {
+				insert(keys[i], counts[i] >> shift);
+				penalisedEdges++;
+			}
+		}
+	}
+
+	// Helper method to place a key that is not in the penalty table yet
+	private void insert(long key, int count) {
+
+		int mask = penaltyKeys.length - 1;
+		int slot = slot(key, mask);
+		while (penaltyKeys[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+
+		penaltyKeys[slot] = key;
+		penaltyCounts[slot] = count;
+	}
+
+	// Helper method to get the slot a key is probed from in a table of mask + 1 slots
+	private static int slot(long key, int mask) {
+
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+	}
+
+	// Helper method to grow the reused arrays to the number of enclosures
+	private void ensureCapacity(int n) {
+
+		if (position.length < n) {
+			position = new int[n];
+		}
+		queue.ensureCapacity(n);
+	}
+
+	// Penalties belong to the optima of one run
+	@Override
+	public void reset() {
+
+		penaltyKeys = new long[INITIAL_PENALTY_CAPACITY];
+		penaltyCounts = new int[INITIAL_PENALTY_CAPACITY];
+		penalisedEdges = 0;
+	}
+
+	@Override
+	public void setNeighbourLists(NeighbourLists neighbourLists) {
+
+		this.neighbourLists = neighbourLists;
+	}
+
+	@Override
+	public boolean isCrossover() {
+
+		return false;
+	}
+
+	@Override
+	public boolean usesIntensityOfMutation() {
+
+		return false;
+	}
+
+	@Override
+	public boolean usesDepthOfSearch() {
+
+		return true;
+	}
+
+	@Override
+	public boolean recordsMoves() {
+
+		return true;
+	}
+}
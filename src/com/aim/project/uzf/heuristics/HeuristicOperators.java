@@ -4,6 +4,10 @@ import java.util.Arrays;
 import java.util.Random;
 
 import com.aim.project.uzf.interfaces.ObjectiveFunctionInterface;
+import com.aim.project.uzf.interfaces.SolutionRepresentationInterface;
+import com.aim.project.uzf.interfaces.UAVSolutionInterface;
+import com.aim.project.uzf.solution.EdgeHash;
+import com.aim.project.uzf.solution.MoveJournal;
 
 /**
  * @author Warren G Jackson
@@ -18,6 +22,9 @@ import com.aim.project.uzf.interfaces.ObjectiveFunctionInterface;
  */
 public class HeuristicOperators {
 
+	// Stands for the food preparation area beyond either end of a tour, see at(int[], int)
+	protected static final int FOOD_PREPARATION_AREA = -1;
+
 	protected ObjectiveFunctionInterface f;
 
 	protected final Random random;
@@ -59,9 +66,151 @@ public class HeuristicOperators {
 
 	}
 
+	// The operators below change the solution in place, keep its edge hash up to date and record each change in the
+	// solution's move journal, if the domain attached one, so that the domain can undo a rejected move instead of
+	// copying the solution
+
+	// Function to swap adjacent enclosures of a solution
+	protected void swapAdjacent(UAVSolutionInterface solution, int index) {
+		swap(solution, index, (index + 1) % solution.getSolutionRepresentation().getSolutionRepresentation().length);
+	}
+
+	// Function to swap any two enclosures of a solution
+	protected void swap(UAVSolutionInterface solution, int i, int j) {
+		SolutionRepresentationInterface representation = solution.getSolutionRepresentation();
+		int[] solutionRepresentation = representation.getSolutionRepresentation();
+		long change = EdgeHash.swapEdges(solutionRepresentation, i, j);
+		MoveJournal.swap(solutionRepresentation, i, j);
+		change ^= EdgeHash.swapEdges(solutionRepresentation, i, j);
+		representation.updateEdgeHash(change);
+
+		MoveJournal journal = representation.getMoveJournal();
+		if (journal != null) {
+			journal.recordSwap(i, j);
+			journal.recordEdgeHashChange(change);
+		}
+	}
+
+	// Function to reinsert an enclosure of a solution
+	protected void reinsertion(UAVSolutionInterface solution, int r_index, int i_index) {
+		SolutionRepresentationInterface representation = solution.getSolutionRepresentation();
+		int[] solutionRepresentation = representation.getSolutionRepresentation();
+		long change = EdgeHash.reinsertionEdges(solutionRepresentation, r_index, i_index, false);
+		MoveJournal.reinsert(solutionRepresentation, r_index, i_index);
+		change ^= EdgeHash.reinsertionEdges(solutionRepresentation, r_index, i_index, true);
+		representation.updateEdgeHash(change);
+
+		MoveJournal journal = representation.getMoveJournal();
+		if (journal != null) {
+			journal.recordReinsertion(r_index, i_index);
+			journal.recordEdgeHashChange(change);
+		}
+	}
+
+	// Function to invert a section of a solution
+	protected void invert(UAVSolutionInterface solution, int i_point1, int i_point2) {
+		SolutionRepresentationInterface representation = solution.getSolutionRepresentation();
+		int[] solutionRepresentation = representation.getSolutionRepresentation();
+		long change = EdgeHash.inversionEdges(solutionRepresentation, i_point1, i_point2);
+		MoveJournal.invert(solutionRepresentation, i_point1, i_point2);
+		change ^= EdgeHash.inversionEdges(solutionRepresentation, i_point1, i_point2);
+		representation.updateEdgeHash(change);
+
+		MoveJournal journal = representation.getMoveJournal();
+		if (journal != null) {
+			journal.recordInversion(i_point1, i_point2);
+			journal.recordEdgeHashChange(change);
+		}
+	}
+
+	// Function to get the enclosure at a position, or the food preparation area beyond either end of the tour
+	protected static int at(int[] tour, int p) {
+
+		return p < 0 || p >= tour.length ? FOOD_PREPARATION_AREA : tour[p];
+	}
+
+	// Function to get the cost between two enclosures, either of which may be the food preparation area
+	protected int cost(int a, int b) {
+
+		if (a == FOOD_PREPARATION_AREA) {
+			return b == FOOD_PREPARATION_AREA ? 0 : f.getCostBetweenFoodPreparationAreaAnd(b);
+		}
+
+		return b == FOOD_PREPARATION_AREA ? f.getCostBetweenFoodPreparationAreaAnd(a) : f.getCost(a, b);
+	}
+
+	// Function to get a non-zero key of the undirected edge between two enclosures or the food preparation area
+	protected static long edgeKey(int a, int b) {
+
+		return ((long) (Math.min(a, b) + 1) << 32) | (Math.max(a, b) + 1);
+	}
+
 	// Sets objective function
 	public void setObjectiveFunction(ObjectiveFunctionInterface f) {
 
 		this.f = f;
 	}
+
+	/**
+	 * A circular queue of the enclosures a local search still has to try, reused between calls and grown with the
+	 * instance. An enclosure is queued at most once at a time, so that the enclosures not in the queue are those whose
+	 * don't-look bits are set.
+	 */
+	protected static final class EnclosureQueue {
+
+		// The enclosures queued and, for each enclosure, the stamp it was last queued with
+		private int[] queue = new int[0];
+		private int[] queuedStamp = new int[0];
+		private int stamp = 0;
+		private int head = 0;
+		private int tail = 0;
+
+		// Grows the queue to the number of enclosures
+		public void ensureCapacity(int n) {
+
+			if (queuedStamp.length < n) {
+				queuedStamp = new int[n];
+				// One more slot than enclosures, so that a full queue is not mistaken for an empty one
+				queue = new int[n + 1];
+				stamp = 0;
+				head = 0;
+				tail = 0;
+			}
+		}
+
+		// Empties the queue, marking every enclosure as not queued
+		public void clear() {
+
+			stamp++;
+			head = 0;
+			tail = 0;
+		}
+
+		// Queues an enclosure unless it is already queued or is the food preparation area
+		public void add(int city) {
+
+			if (city == FOOD_PREPARATION_AREA || queuedStamp[city] == stamp) {
+				return;
+			}
+
+			queuedStamp[city] = stamp;
+			queue[tail] = city;
+			tail = tail + 1 == queue.length ? 0 : tail + 1;
+		}
+
+		public boolean isEmpty() {
+
+			return head == tail;
+		}
+
+		// Takes the enclosure at the head of the queue
+		public int poll() {
+
+			int city = queue[head];
+			head = head + 1 == queue.length ? 0 : head + 1;
+			queuedStamp[city] = stamp - 1;
+
+			return city;
+		}
+	}
 }
@@ -21,6 +21,13 @@ public class Inversion extends HeuristicOperators implements HeuristicInterface
     @Override
     public int apply(UAVSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
 
+        applyWithoutEvaluating(solution, depthOfSearch, intensityOfMutation);
+        return solution.getObjectiveFunctionValue();
+    }
+
+    @Override
+    public void applyWithoutEvaluating(UAVSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
+
         // Gets the solution representation to an array
         int[] solutionRepresentation = solution.getSolutionRepresentation().getSolutionRepresentation();
         // Calculate the internal number of reinsertions based on IOM in [0,1]
@@ -43,14 +50,11 @@ public class Inversion extends HeuristicOperators implements HeuristicInterface
             }
 
             // Perform inversion
-            invert(solutionRepresentation, inversionPoint1, inversionPoint2);
-
-            // Sets the objective function value
-            solution.setObjectiveFunctionValue(f.getObjectiveFunctionValue(solution.getSolutionRepresentation()));
+            invert(solution, inversionPoint1, inversionPoint2);
         }
 
-        System.out.println("INV " + solution.getObjectiveFunctionValue());
-        return solution.getObjectiveFunctionValue();
+        // Only the final tour is evaluated, when its objective value is read
+        solution.invalidateObjectiveFunctionValue();
     }
 
 
@@ -72,4 +76,10 @@ public class Inversion extends HeuristicOperators implements HeuristicInterface
         return false;
     }
 
+    @Override
+    public boolean recordsMoves() {
+
+        return true;
+    }
+
 }
@@ -0,0 +1,217 @@
+package com.aim.project.uzf.heuristics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.aim.project.uzf.interfaces.HeuristicInterface;
+import com.aim.project.uzf.interfaces.UAVSolutionInterface;
+
+/**
+ * Iterated local search whose iterations only touch a segment of the tour, so each one costs O(k) for a segment of
+ * k enclosures rather than O(n):
+ * <ol>
+ * <li>A double-bridge kick exchanges two adjacent blocks inside a random segment, whose length grows with the
+ * intensity of mutation.</li>
+ * <li>2-opt re-optimises the segment and a margin around it, starting from the enclosures at the ends of the kicked
+ * blocks only; an enclosure whose moves were all tried without improvement is skipped (its don't-look bit is set)
+ * until a move changes its neighbours.</li>
+ * <li>The result is kept if it is better than the tour before the kick, otherwise the inversions are undone in
+ * reverse order.</li>
+ * </ol>
+ * Costs are tracked by the change of the edges each move replaces, and the tour is only changed by inversions through
+ * {@link HeuristicOperators}, so its move journal and edge hash stay up to date.
+ */
+public class IteratedLocalSearch extends HeuristicOperators implements HeuristicInterface {
+
+	// Enclosures in the kicked segment per level of intensity of mutation
+	private static final int KICK_SEGMENT_LENGTH = 8;
+	// Enclosures on either side of the kicked segment that 2-opt may also move
+	private static final int REOPTIMISATION_MARGIN = 8;
+	// Kicks per level of depth of search
+	private static final int ITERATIONS_PER_LEVEL = 5;
+
+	// Reused between calls and grown with the instance: the position of each enclosure in the window, the queue of
+	// enclosures to try, and the inversions applied
+	private int[] position = new int[0];
+	private final EnclosureQueue queue = new EnclosureQueue();
+	private int[] inversions = new int[16];
+
+	public IteratedLocalSearch(Random random) {
+
+		super(random);
+	}
+
+	@Override
+	public int apply(UAVSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
+
+		int[] tour = solution.getSolutionRepresentation().getSolutionRepresentation();
+		int n = tour.length;
+		int cost = solution.getObjectiveFunctionValue();
+		if (n < 3) {
+			return cost;
+		}
+
+		ensureCapacity(n);
+		int iterations = (int) (Math.floor(depthOfSearch / 0.2) + 1) * ITERATIONS_PER_LEVEL;
+		int segmentLength = Math.min(n, (int) (Math.floor(intensityOfMutation / 0.2) + 1) * KICK_SEGMENT_LENGTH);
+
+		for (int i = 0; i < iterations; i++) {
+
+			// Choose two adjacent, non-empty blocks inside a random segment
+			int start = random.nextInt(n - segmentLength + 1);
+			int firstLength = 1 + random.nextInt(segmentLength - 1);
+			int secondLength = 1 + random.nextInt(segmentLength - firstLength);
+			int p1 = start + random.nextInt(segmentLength - firstLength - secondLength + 1);
+			int p2 = p1 + firstLength;
+			int p3 = p2 + secondLength;
+
+			// Double-bridge kick: A B C D becomes A C B D
+			int candidateCost = cost + doubleBridgeDelta(tour, p1, p2, p3);
+			int applied = 0;
+			applied = invert(solution, p1, p3 - 1, applied);
+			applied = invert(solution, p1, p1 + secondLength - 1, applied);
+			applied = invert(solution, p1 + secondLength, p3 - 1, applied);
+
+			int lo = Math.max(0, p1 - REOPTIMISATION_MARGIN);
+			int hi = Math.min(n - 1, p3 - 1 + REOPTIMISATION_MARGIN);
+			queue.clear();
+			for (int p = lo; p <= hi; p++) {
+				position[tour[p]] = p;
+			}
+
+			// Only the enclosures at the ends of the blocks start without their don't-look bits set
+			enqueue(tour, p1 - 1, lo, hi);
+			enqueue(tour, p1, lo, hi);
+			enqueue(tour, p1 + secondLength - 1, lo, hi);
+			enqueue(tour, p1 + secondLength, lo, hi);
+			enqueue(tour, p3 - 1, lo, hi);
+			enqueue(tour, p3, lo, hi);
+
+			while (!queue.isEmpty()) {
+
+				int city = queue.poll();
+
+				int p = position[city];
+				int bestA = -1;
+				int bestB = -1;
+				int bestDelta = 0;
+				for (int q = lo; q <= hi; q++) {
+					if (q == p) {
+						continue;
+					}
+					int a = Math.min(p, q);
+					int b = Math.max(p, q);
+					int delta = twoOptDelta(tour, a, b);
+					if (delta < bestDelta) {
+						bestA = a;
+						bestB = b;
+						bestDelta = delta;
+					}
+				}
+
+				if (bestA >= 0) {
+					candidateCost += bestDelta;
+					applied = invert(solution, bestA, bestB, applied);
+					for (int q = bestA; q <= bestB; q++) {
+						position[tour[q]] = q;
+					}
+
+					// The enclosures next to the replaced edges may now have improving moves
+					enqueue(tour, bestA - 1, lo, hi);
+					enqueue(tour, bestA, lo, hi);
+					enqueue(tour, bestB, lo, hi);
+					enqueue(tour, bestB + 1, lo, hi);
+				}
+			}
+
+			// Accept if better, otherwise undo the inversions, each being its own inverse
+			if (candidateCost < cost) {
+				cost = candidateCost;
+			} else {
+				for (int k = applied - 2; k >= 0; k -= 2) {
+					invert(solution, inversions[k], inversions[k + 1]);
+				}
+			}
+		}
+
+		solution.setObjectiveFunctionValue(cost);
+		return cost;
+	}
+
+	// Helper method to invert a section of the solution and remember the inversion so that it can be undone
+	private int invert(UAVSolutionInterface solution, int from, int to, int applied) {
+
+		if (from >= to) {
+			return applied;
+		}
+		if (applied + 2 > inversions.length) {
+			inversions = Arrays.copyOf(inversions, inversions.length * 2);
+		}
+
+		invert(solution, from, to);
+		inversions[applied] = from;
+		inversions[applied + 1] = to;
+
+		return applied + 2;
+	}
+
+	// Helper method to queue the enclosure at a position of the window unless it is already queued
+	private void enqueue(int[] tour, int p, int lo, int hi) {
+
+		if (p >= lo && p <= hi) {
+			queue.add(tour[p]);
+		}
+	}
+
+	// Helper method to calculate the change in cost of reversing the section from a to b
+	private int twoOptDelta(int[] tour, int a, int b) {
+
+		int before = at(tour, a - 1);
+		int after = at(tour, b + 1);
+
+		return cost(before, tour[b]) + cost(tour[a], after) - cost(before, tour[a]) - cost(tour[b], after);
+	}
+
+	// Helper method to calculate the change in cost of exchanging the blocks [p1, p2) and [p2, p3)
+	private int doubleBridgeDelta(int[] tour, int p1, int p2, int p3) {
+
+		int before = at(tour, p1 - 1);
+		int after = at(tour, p3);
+
+		return cost(before, tour[p2]) + cost(tour[p3 - 1], tour[p1]) + cost(tour[p2 - 1], after)
+				- cost(before, tour[p1]) - cost(tour[p2 - 1], tour[p2]) - cost(tour[p3 - 1], after);
+	}
+
+	// Helper method to grow the reused arrays to the number of enclosures
+	private void ensureCapacity(int n) {
+
+		if (position.length < n) {
+			position = new int[n];
+		}
+		queue.ensureCapacity(n);
+	}
+
+	@Override
+	public boolean isCrossover() {
+
+		return false;
+	}
+
+	@Override
+	public boolean usesIntensityOfMutation() {
+
+		return true;
+	}
+
+	@Override
+	public boolean usesDepthOfSearch() {
+
+		return true;
+	}
+
+	@Override
+	public boolean recordsMoves() {
+
+		return true;
+	}
+}
@@ -40,7 +40,7 @@ public class NextDescent extends HeuristicOperators implements HeuristicInterfac
 			for (int  j = 0; j < solutionRepresentation.length; j++) {
 
 				// Perform swap and calculate the candidate
-				swapAdjacent(solutionRepresentation, ((startPoint + j) % (solutionRepresentation.length-1)));
+				swapAdjacent(solution, ((startPoint + j) % (solutionRepresentation.length-1)));
 				double candidateCost = f.getObjectiveFunctionValue(solution.getSolutionRepresentation());
 
 				// Accept improving moves only (strict improvement)
@@ -49,12 +49,12 @@ public class NextDescent extends HeuristicOperators implements HeuristicInterfac
 					improved = true;
 					startPoint = (startPoint + j+1) % (solutionRepresentation.length-1); // alter start point
 					// Set the objective function value
-					solution.setObjectiveFunctionValue(f.getObjectiveFunctionValue(solution.getSolutionRepresentation()));
+					solution.setObjectiveFunctionValue((int) candidateCost);
 					break; // break
 				}
 				else {
 					// Reject
-					swapAdjacent(solutionRepresentation, (startPoint + j) % (solutionRepresentation.length-1));
+					swapAdjacent(solution, (startPoint + j) % (solutionRepresentation.length-1));
 				}
 
 			}
@@ -67,7 +67,6 @@ public class NextDescent extends HeuristicOperators implements HeuristicInterfac
 
 		}
 
-		System.out.println("ND " + solution.getObjectiveFunctionValue());
 		return solution.getObjectiveFunctionValue();
 	}
 
@@ -88,4 +87,10 @@ public class NextDescent extends HeuristicOperators implements HeuristicInterfac
 
 		return true;
 	}
+
+	@Override
+	public boolean recordsMoves() {
+
+		return true;
+	}
 }
@@ -80,9 +80,10 @@ public class PMX implements XOHeuristicInterface {
 			child[i] = location;
 		}
 
+		// The child was written directly, so its edge hash has to be recalculated
+		c.getSolutionRepresentation().invalidateEdgeHash();
 		// Sets the objective function value of the child
 		c.setObjectiveFunctionValue(f.getObjectiveFunctionValue(c.getSolutionRepresentation()));
-		System.out.println("PMX " + c.getObjectiveFunctionValue());
 		return c.getObjectiveFunctionValue();
 	}
 
@@ -109,4 +110,10 @@ public class PMX implements XOHeuristicInterface {
 
 		return false;
 	}
+
+	@Override
+	public boolean recordsMoves() {
+
+		return false;
+	}
 }
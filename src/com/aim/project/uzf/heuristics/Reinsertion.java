@@ -21,6 +21,13 @@ public class Reinsertion extends HeuristicOperators implements HeuristicInterfac
 	@Override
 	public int apply(UAVSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
 
+		applyWithoutEvaluating(solution, depthOfSearch, intensityOfMutation);
+		return solution.getObjectiveFunctionValue();
+	}
+
+	@Override
+	public void applyWithoutEvaluating(UAVSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
+
 		// Gets the solution representation to an array
 		int[] solutionRepresentation = solution.getSolutionRepresentation().getSolutionRepresentation();
 		// Calculate the internal number of reinsertions based on IOM in [0,1]
@@ -36,14 +43,11 @@ public class Reinsertion extends HeuristicOperators implements HeuristicInterfac
 				insertionIndex = random.nextInt(solution.getNumberOfLocations());
 			}
 			// Perform reinsertion
-			reinsertion(solutionRepresentation, removeIndex, insertionIndex);
-
-			// Sets the objective function value
-			solution.setObjectiveFunctionValue(f.getObjectiveFunctionValue(solution.getSolutionRepresentation()));
+			reinsertion(solution, removeIndex, insertionIndex);
 		}
 
-		System.out.println("REINSERTION " + solution.getObjectiveFunctionValue());
-		return solution.getObjectiveFunctionValue();
+		// Only the final tour is evaluated, when its objective value is read
+		solution.invalidateObjectiveFunctionValue();
 	}
 
 
@@ -65,4 +69,10 @@ public class Reinsertion extends HeuristicOperators implements HeuristicInterfac
 		return false;
 	}
 
+	@Override
+	public boolean recordsMoves() {
+
+		return true;
+	}
+
 }
@@ -21,6 +21,13 @@ public class SteepestDescentHC extends HeuristicOperators implements HeuristicIn
     @Override
     public int apply(UAVSolutionInterface solution, double dos, double iom) {
 
+        applyWithoutEvaluating(solution, dos, iom);
+        return solution.getObjectiveFunctionValue();
+    }
+
+    @Override
+    public void applyWithoutEvaluating(UAVSolutionInterface solution, double dos, double iom) {
+
         // Gets the solution representation to an array
         int[] solutionRepresentation = solution.getSolutionRepresentation().getSolutionRepresentation();
         // Calculate the internal number of iterations based on DOS in [0,1]
@@ -42,7 +49,7 @@ public class SteepestDescentHC extends HeuristicOperators implements HeuristicIn
             for (int  j = 0; j < solutionRepresentation.length; j++) {
 
                 // Perform swap and calculate the candidate
-                swapAdjacent(solutionRepresentation, ((startPoint + j) % (solutionRepresentation.length-1)));
+                swapAdjacent(solution, ((startPoint + j) % (solutionRepresentation.length-1)));
                 double candidateCost = f.getObjectiveFunctionValue(solution.getSolutionRepresentation());
 
                 // Accept improving moves only (strict improvement)
@@ -54,22 +61,19 @@ public class SteepestDescentHC extends HeuristicOperators implements HeuristicIn
                     startPoint = (startPoint + j+1) % (solutionRepresentation.length-1); // alter start point
                 }
 
-                swapAdjacent(solutionRepresentation, (startPoint + j) % (solutionRepresentation.length-1));
+                swapAdjacent(solution, (startPoint + j) % (solutionRepresentation.length-1));
 
             }
 
             // If no improvement is found, break
             if (improved) {
-                swapAdjacent(solutionRepresentation, bestIndex);
+                swapAdjacent(solution, bestIndex);
                 // Set the objective function value
-                solution.setObjectiveFunctionValue(f.getObjectiveFunctionValue(solution.getSolutionRepresentation()));
+                solution.invalidateObjectiveFunctionValue();
             }
 
 
         }
-
-        System.out.println("SDHC " + solution.getObjectiveFunctionValue());
-        return solution.getObjectiveFunctionValue();
     }
 
     @Override
@@ -89,4 +93,10 @@ public class SteepestDescentHC extends HeuristicOperators implements HeuristicIn
 
         return true;
     }
+
+    @Override
+    public boolean recordsMoves() {
+
+        return true;
+    }
 }
\ No newline at end of file
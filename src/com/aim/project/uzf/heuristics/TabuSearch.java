@@ -0,0 +1,273 @@
+package com.aim.project.uzf.heuristics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.aim.project.uzf.instance.NeighbourLists;
+import com.aim.project.uzf.interfaces.HeuristicInterface;
+import com.aim.project.uzf.interfaces.UAVSolutionInterface;
+
+/**
+ * Tabu search that, unlike the descent heuristics, carries on past local optima by always making the best admissible
+ * move, even a worsening one, and returns the best solution it visited.
+ * <br>
+ * Moves are 2-opt inversions and swaps that place an enclosure next to one of its nearest neighbours, as given by the
+ * {@link NeighbourLists} of the instance, and are evaluated by the change of the edges they replace. The edges a move
+ * removes are tabu for a tenure drawn from a range that grows with the depth of search, so moves that would add them
+ * back are not admissible unless they lead to a new best solution (aspiration). The tabu edges are kept in an
+ * open-addressing table of edge keys and expiry iterations, and every buffer is reused, so an iteration allocates
+ * nothing.
+ */
+public class TabuSearch extends HeuristicOperators implements HeuristicInterface {
+
+	// Iterations and minimum tenure per level of depth of search
+	private static final int ITERATIONS_PER_LEVEL = 10;
+	private static final int TENURE_PER_LEVEL = 3;
+	private static final int MAX_LEVEL = 6;
+
+	// Slots of the tabu table, at least twice the edges the most iterations can make tabu
+	private static final int TABU_TABLE_BITS = 10;
+	private static final int TABU_TABLE_MASK = (1 << TABU_TABLE_BITS) - 1;
+
+	private static final int NONE = 0;
+	private static final int INVERSION = 1;
+	private static final int SWAP = 2;
+
+	private NeighbourLists neighbourLists;
+
+	// Tabu edges and the iteration until which each is tabu, a key of 0 marking a slot never used
+	private final long[] tabuKeys = new long[TABU_TABLE_MASK + 1];
+	private final int[] tabuExpiry = new int[TABU_TABLE_MASK + 1];
+	private int iteration;
+
+	// Reused between calls: the position of each enclosure, and the moves made since the best solution as triples of
+	// type and positions
+	private int[] position = new int[0];
+	private final int[] moves = new int[3 * ITERATIONS_PER_LEVEL * MAX_LEVEL];
+
+	// The best admissible move of the current iteration
+	private int bestType;
+	private int bestX;
+	private int bestY;
+	private int bestDelta;
+
+	public TabuSearch(Random random) {
+
+		super(random);
+	}
+
+	@Override
+	public int apply(UAVSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
+
+		int[] tour = solution.getSolutionRepresentation().getSolutionRepresentation();
+		int n = tour.length;
+		int cost = solution.getObjectiveFunctionValue();
+		if (n < 3) {
+			return cost;
+		}
+
+		if (position.length < n) {
+			position = new int[n];
+		}
+		for (int p = 0; p < n; p++) {
+			position[tour[p]] = p;
+		}
+		Arrays.fill(tabuKeys, 0);
+
+		int level = Math.min(MAX_LEVEL, (int) (Math.floor(depthOfSearch / 0.2) + 1));
+		int iterations = level * ITERATIONS_PER_LEVEL;
+		int minTenure = level * TENURE_PER_LEVEL;
+		int neighbours = neighbourLists == null ? n - 1 : neighbourLists.getK();
+
+		int bestCost = cost;
+		int movesSinceBest = 0;
+		for (iteration = 1; iteration <= iterations; iteration++) {
+
+			// Find the best admissible move joining an enclosure to one of its nearest neighbours
+			bestType = NONE;
+			bestDelta = Integer.MAX_VALUE;
+			for (int i = 0; i < n; i++) {
+				int a = tour[i];
+				for (int r = 0; r < neighbours; r++) {
+					int c = neighbourLists == null ? (a + 1 + r) % n : neighbourLists.getNeighbour(a, r);
+					int j = position[c];
+					int lo = Math.min(i, j);
+					int hi = Math.max(i, j);
+
+					// Invert between them so that they follow, or are followed by, each other
+					considerInversion(tour, lo + 1, hi, cost, bestCost);
+					considerInversion(tour, lo, hi - 1, cost, bestCost);
+
+					// Swap a with the enclosure after or before c
+					if (j + 1 < n && j + 1 != i) {
+						considerSwap(tour, Math.min(i, j + 1), Math.max(i, j + 1), cost, bestCost);
+					}
+					if (j > 0 && j - 1 != i) {
+						considerSwap(tour, Math.min(i, j - 1), Math.max(i, j - 1), cost, bestCost);
+					}
+				}
+			}
+
+			if (bestType == NONE) {
+				break;
+			}
+
+			// Make the removed edges tabu, then apply the move
+			int expiry = iteration + minTenure + random.nextInt(minTenure + 1);
+			int x = bestX;
+			int y = bestY;
+			makeTabu(at(tour, x - 1), tour[x], expiry);
+			makeTabu(tour[y], at(tour, y + 1), expiry);
+			if (bestType == INVERSION) {
+				invert(solution, x, y);
+				for (int p = x; p <= y; p++) {
+					position[tour[p]] = p;
+				}
+			} else {
+				makeTabu(tour[x], tour[x + 1], expiry);
+				makeTabu(tour[y - 1], tour[y], expiry);
+				swap(solution, x, y);
+				position[tour[x]] = x;
+				position[tour[y]] = y;
+			}
+
+			cost += bestDelta;
+			if (cost < bestCost) {
+				bestCost = cost;
+				movesSinceBest = 0;
+			} else {
+				moves[3 * movesSinceBest] = bestType;
+				moves[3 * movesSinceBest + 1] = x;
+				moves[3 * movesSinceBest + 2] = y;
+				movesSinceBest++;
+			}
+		}
+
+		// Return to the best solution visited, each move being its own inverse
+		for (int m = movesSinceBest - 1; m >= 0; m--) {
+			if (moves[3 * m] == INVERSION) {
+				invert(solution, moves[3 * m + 1], moves[3 * m + 2]);
+			} else {
+				swap(solution, moves[3 * m + 1], moves[3 * m + 2]);
+			}
+		}
+
+		solution.setObjectiveFunctionValue(bestCost);
+		return bestCost;
+	}
+
+	// Helper method to keep the inversion of positions x to y if it is the best admissible move so far
+	private void considerInversion(int[] tour, int x, int y, int currentCost, int bestCost) {
+
+		if (x >= y) {
+			return;
+		}
+
+		int before = at(tour, x - 1);
+		int after = at(tour, y + 1);
+		int delta = cost(before, tour[y]) + cost(tour[x], after) - cost(before, tour[x]) - cost(tour[y], after);
+		if (delta < bestDelta && (currentCost + delta < bestCost
+				|| !(isTabu(before, tour[y]) || isTabu(tour[x], after)))) {
+			bestType = INVERSION;
+			bestX = x;
+			bestY = y;
+			bestDelta = delta;
+		}
+	}
+
+	// Helper method to keep the swap of positions x and y, which are not adjacent, if it is the best admissible move
+	private void considerSwap(int[] tour, int x, int y, int currentCost, int bestCost) {
+
+		if (y == x + 1) {
+			// Swapping adjacent enclosures is the inversion of both
+			considerInversion(tour, x, y, currentCost, bestCost);
+			return;
+		}
+
+		int before = at(tour, x - 1);
+		int after = at(tour, y + 1);
+		int delta = cost(before, tour[y]) + cost(tour[y], tour[x + 1]) + cost(tour[y - 1], tour[x])
+				+ cost(tour[x], after) - cost(before, tour[x]) - cost(tour[x], tour[x + 1])
+				- cost(tour[y - 1], tour[y]) - cost(tour[y], after);
+		if (delta < bestDelta && (currentCost + delta < bestCost || !(isTabu(before, tour[y])
+				|| isTabu(tour[y], tour[x + 1]) || isTabu(tour[y - 1], tour[x]) || isTabu(tour[x], after)))) {
+			bestType = SWAP;
+			bestX = x;
+			bestY = y;
+			bestDelta = delta;
+		}
+	}
+
+	// Helper method to check whether the edge between two enclosures was removed within its tenure
+	private boolean isTabu(int a, int b) {
+
+		long key = edgeKey(a, b);
+		for (int slot = slot(key); tabuKeys[slot] != 0; slot = (slot + 1) & TABU_TABLE_MASK) {
+			if (tabuKeys[slot] == key) {
+				return tabuExpiry[slot] > iteration;
+			}
+		}
+
+		return false;
+	}
+
+	// Helper method to make an edge tabu until the expiry iteration, reusing the first expired slot on its probe path
+	private void makeTabu(int a, int b, int expiry) {
+
+		long key = edgeKey(a, b);
+		int free = -1;
+		int slot = slot(key);
+		for (; tabuKeys[slot] != 0; slot = (slot + 1) & TABU_TABLE_MASK) {
+			if (tabuKeys[slot] == key) {
+				tabuExpiry[slot] = expiry;
+				return;
+			}
+			if (free < 0 && tabuExpiry[slot] <= iteration) {
+				free = slot;
+			}
+		}
+
+		if (free < 0) {
+			free = slot;
+		}
+		tabuKeys[free] = key;
+		tabuExpiry[free] = expiry;
+	}
+
+	// Helper method to get the slot a key is probed from
+	private static int slot(long key) {
+
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - TABU_TABLE_BITS));
+	}
+
+	// Without neighbour lists, every enclosure is a candidate
+	@Override
+	public void setNeighbourLists(NeighbourLists neighbourLists) {
+
+		this.neighbourLists = neighbourLists;
+	}
+
+	@Override
+	public boolean isCrossover() {
+
+		return false;
+	}
+
+	@Override
+	public boolean usesIntensityOfMutation() {
+
+		return false;
+	}
+
+	@Override
+	public boolean usesDepthOfSearch() {
+
+		return true;
+	}
+
+	@Override
+	public boolean recordsMoves() {
+
+		return true;
+	}
+}
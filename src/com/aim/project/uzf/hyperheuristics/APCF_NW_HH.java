@@ -1,66 +1,99 @@
 package com.aim.project.uzf.hyperheuristics;
 
 import com.aim.project.uzf.UZFDomain;
-import com.aim.project.uzf.SolutionPrinter;
-import com.aim.project.uzf.interfaces.UAVSolutionInterface;
+import com.aim.project.uzf.output.SolutionWriter;
 import AbstractClasses.HyperHeuristic;
 import AbstractClasses.ProblemDomain;
+import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.Comparator;
-import java.util.stream.IntStream;
 
 /**
  * <h1> Adaptive Choice Function (Non-Worsening) Hyper-Heuristic</h1>
  *
  * This class implements a hyper-heuristic (HH) using an adaptive choice function (CF) approach.
- * The choice function combines two measures: the heuristic's rank in terms of performance and
- * the time since the last application of the heuristic. The class selects and applies low-level
- * heuristics based on their choice function values to search for optimal solutions efficiently.
+ * The choice function combines how much each heuristic improved the solution per nanosecond, on its own and when
+ * following the previously applied heuristic, with the time since the heuristic was last applied. The scores are
+ * kept by a {@link ChoiceFunction} and updated after every call, and the heuristic with the largest score is applied.
  * <br>
  * <br>
  * Choice Function:
- * {@code CF(h) = alpha * f_1(h) + f_2(h)}
+ * {@code CF(h) = alpha * f_1(h) + beta * f_2(h_previous, h) + gamma * f_3(h)}, each measure divided by its largest
+ * magnitude among the heuristics so that the coefficients weigh comparable values.
  * <br>
  * <br>
  * Pseudocode Logic:
  * <pre>{@code
  * 1:    procedure HH_CFH where H is a set of the low level heuristics.
  * 2:    Initialization
- * 3:    Run h, ∀ h ∈ H
- * 4:    Rank h, ∀ h ∈ H based on the ranking scheme
- * 5:    Get CF(h), ∀ h ∈ H
- * 6:    Select h with the largest CF(h) as an initial heuristic
- * 7:    Execute the selected h and produce a front A
- * 8:    repeat
- * 9:    Update the rank of h, ∀ h ∈ H based on the ranking scheme
- * 10:   Update CF(h), ∀ h ∈ H
- * 11:   Select h with the largest CF(h), ∀ h ∈ H
- * 12:   Execute the selected h and produce a new front B
- * 13:   Call the acceptance procedure GDA(A,B)/LA(A,B)
- * 14:   until (termination criteria are satisfied)
- * 15:   end procedure
+ * 3:    Set f_1(h) from the priors of earlier runs, or run h, ∀ h ∈ H, updating f_1(h), f_2 and f_3(h)
+ * 4:    repeat
+ * 5:    Select h with the largest CF(h), ∀ h ∈ H
+ * 6:    Execute the selected h and produce a candidate solution
+ * 7:    Update f_1(h), f_2(h_previous, h) and f_3(h)
+ * 8:    Accept the candidate if it is not worse than the current solution
+ * 9:    until (termination criteria are satisfied)
+ * 10:   end procedure
  * }</pre>
+ * Each call is also recorded in {@link HeuristicPriors}. If the priors of earlier runs on the instance are found,
+ * a heuristic with at least {@value #MIN_PRIOR_CALLS} recorded calls starts from them rather than being run first.
+ * Priors are read from and saved to the given path, or to the {@value HeuristicPriors#PRIORS_DIRECTORY_PROPERTY}
+ * directory if no path is given.
  */
 public class APCF_NW_HH extends HyperHeuristic {
 
+    private static final int SECOND_PARENT_INDEX = 2;
     private static final int BEST_ACCEPTED_INDEX = 3;
 
-    private double[] heuristicObjectives;
-    private double[] cfValues;
+    // Share of the previous f_1 and f_2 values kept on each update
+    private static final double PHI = 0.5;
+    // Calls recorded in earlier runs before a heuristic no longer needs to be run first
+    private static final int MIN_PRIOR_CALLS = 5;
+
     private final double alpha;
+    private final double beta;
     private final double gamma;
+    private final long lSeed;
+    private final Path priorsPath;
 
     /**
-     * Constructs a new instance of the hyper-heuristic.
+     * Constructs a new instance of the hyper-heuristic, weighting f_2 the same as f_1.
      *
      * @param lSeed the seed for random number generation.
      * @param alpha the coefficient for the first measure in the choice function.
-     * @param gamma the coefficient for the second measure in the choice function.
+     * @param gamma the coefficient for the time since last application.
      */
     public APCF_NW_HH(long lSeed, double alpha, double gamma) {
+        this(lSeed, alpha, alpha, gamma);
+    }
+
+    /**
+     * Constructs a new instance of the hyper-heuristic.
+     *
+     * @param lSeed the seed for random number generation.
+     * @param alpha the coefficient for the improvement per nanosecond of each heuristic.
+     * @param beta the coefficient for the improvement per nanosecond of each pair of consecutive heuristics.
+     * @param gamma the coefficient for the time since last application.
+     */
+    public APCF_NW_HH(long lSeed, double alpha, double beta, double gamma) {
+        this(lSeed, alpha, beta, gamma, null);
+    }
+
+    /**
+     * Constructs a new instance of the hyper-heuristic that starts from, and saves, heuristic priors.
+     *
+     * @param lSeed the seed for random number generation.
+     * @param alpha the coefficient for the improvement per nanosecond of each heuristic.
+     * @param beta the coefficient for the improvement per nanosecond of each pair of consecutive heuristics.
+     * @param gamma the coefficient for the time since last application.
+     * @param priorsPath the file of heuristic priors, or null for one per instance in the priors directory.
+     */
+    public APCF_NW_HH(long lSeed, double alpha, double beta, double gamma, Path priorsPath) {
         super(lSeed);
+        this.lSeed = lSeed;
         this.alpha = alpha;
+        this.beta = beta;
         this.gamma = gamma;
+        this.priorsPath = priorsPath;
     }
 
     @Override
@@ -72,10 +105,8 @@ public class APCF_NW_HH extends HyperHeuristic {
         int candidateIndex = 1;
         oProblem.initialiseSolution(currentIndex);
         oProblem.copySolution(currentIndex, BEST_ACCEPTED_INDEX);
-
-        heuristicObjectives = new double[numberOfHeuristics];
-        cfValues = new double[numberOfHeuristics];
-        long lastHeuristicApplicationTime = System.currentTimeMillis(); // Initialize lastHeuristicApplicationTime
+        oProblem.initialiseSolution(SECOND_PARENT_INDEX);
+        double currentCost = oProblem.getFunctionValue(currentIndex);
 
         // Cache indices of crossover heuristics
         boolean[] isCrossover = new boolean[numberOfHeuristics];
@@ -85,155 +116,80 @@ public class APCF_NW_HH extends HyperHeuristic {
             isCrossover[i] = true;
         }
 
-        // Run each low-level heuristic multiple times to gather statistics for choice function
-        int runsPerHeuristic = 100; // Adjust as needed
-        for (int heuristicIndex = 0; heuristicIndex < numberOfHeuristics; heuristicIndex++) {
-            double totalCost = 0;
-            for (int run = 0; run < runsPerHeuristic; run++) {
-                totalCost += applyHeuristicAndGetCost(oProblem, heuristicIndex, currentIndex, candidateIndex, isCrossover);
+        UZFDomain domain = (UZFDomain) oProblem;
+        Path path = priorsPath != null ? priorsPath
+                : HeuristicPriors.getPriorsPath(this + "-" + domain.getLoadedInstanceId());
+        HeuristicPriors priors = loadPriors(path, numberOfHeuristics);
+
+        ChoiceFunction choiceFunction = new ChoiceFunction(numberOfHeuristics, alpha, beta, gamma, PHI,
+                System.nanoTime());
+
+        // Start from the priors where there are enough, and warm up only the other heuristics
+        int[] warmUp = new int[numberOfHeuristics];
+        int warmUpCalls = 0;
+        for (int h = 0; h < numberOfHeuristics; h++) {
+            if (priors.getCalls(h) >= MIN_PRIOR_CALLS) {
+                choiceFunction.prime(h, priors.getMeanImprovement(h), priors.getMeanRuntime(h));
+            } else {
+                warmUp[warmUpCalls++] = h;
             }
-            heuristicObjectives[heuristicIndex] = totalCost / runsPerHeuristic; // Average objective value
         }
 
-        // Generate an array of heuristic indices sorted by objective values in ascending order
-        int[] rankedHeuristics = IntStream.range(0, numberOfHeuristics)
-                .boxed()
-                .sorted(Comparator.comparingDouble(i -> heuristicObjectives[i]))
-                .mapToInt(Integer::intValue)
-                .toArray();
-
-        // Calculate choice function values for each heuristic
-        for (int i = 0; i < rankedHeuristics.length; i++) {
-            int heuristicIndex = rankedHeuristics[i];
-            double f1 = calculateF1(heuristicIndex, rankedHeuristics);
-            double f2 = calculateF2(lastHeuristicApplicationTime);
-            cfValues[i] = alpha * f1 + gamma * f2; // Using alpha and gamma coefficients
-        }
-
-        // Sort the cfValues array in descending order
-        Arrays.sort(cfValues);
-        // Reverse the array to sort in descending order
-        for (int i = 0; i < cfValues.length / 2; i++) {
-            double temp = cfValues[i];
-            cfValues[i] = cfValues[cfValues.length - 1 - i];
-            cfValues[cfValues.length - 1 - i] = temp;
-        }
-
-        // Execute the heuristic with the highest choice function value
-        int selectedHeuristic = rankedHeuristics[0];
-        applyHeuristic(oProblem, selectedHeuristic, currentIndex, candidateIndex, isCrossover);
-
-        // Define an array to store objective values for front A
-        double[] objectiveValuesA = new double[numberOfHeuristics];
-
-        // Populate objective values for front A
-        for (int i = 0; i < numberOfHeuristics; i++) {
-            objectiveValuesA[i] = oProblem.getFunctionValue(currentIndex);
-        }
-
-        // Repeat until termination criteria are satisfied
-        while (!hasTimeExpired()) {
-            // Update CF(h) values for each heuristic
-            for (int i = 0; i < rankedHeuristics.length; i++) {
-                int heuristic = rankedHeuristics[i];
-                double f1 = calculateF1(heuristic, rankedHeuristics);
-                double f2 = calculateF2(lastHeuristicApplicationTime);
-                cfValues[i] = alpha * f1 + gamma * f2;
-            }
-
-            // Sort the cfValues array in descending order
-            Arrays.sort(cfValues);
-            // Reverse the array to sort in descending order
-            for (int i = 0; i < cfValues.length / 2; i++) {
-                double temp = cfValues[i];
-                cfValues[i] = cfValues[cfValues.length - 1 - i];
-                cfValues[cfValues.length - 1 - i] = temp;
+        // Run each low-level heuristic without priors once to initialise the choice function, then follow it
+        for (int call = 0; !hasTimeExpired(); call++) {
+            int heuristic = call < warmUpCalls ? warmUp[call] : choiceFunction.select(System.nanoTime());
+
+            long startTime = System.nanoTime();
+            double candidateCost = applyHeuristic(oProblem, heuristic, currentIndex, candidateIndex, isCrossover);
+            long endTime = System.nanoTime();
+            // Improvements relative to the current cost keep the weights independent of the instance's scale
+            double improvement = (currentCost - candidateCost) / currentCost;
+            choiceFunction.update(heuristic, improvement, endTime - startTime, endTime);
+            priors.record(heuristic, improvement, endTime - startTime);
+
+            // Keep the best accepted solution as the partner for crossovers
+            if (candidateCost < currentCost) {
+                oProblem.copySolution(candidateIndex, BEST_ACCEPTED_INDEX);
             }
 
-            // Execute the heuristic with the highest choice function value
-            selectedHeuristic = rankedHeuristics[0];
-            applyHeuristic(oProblem, selectedHeuristic, currentIndex, candidateIndex, isCrossover);
-
-            // Produce a new front B
-            double[] objectiveValuesB = new double[numberOfHeuristics];
-            for (int i = 0; i < numberOfHeuristics; i++) {
-                objectiveValuesB[i] = oProblem.getFunctionValue(candidateIndex);
-            }
-
-            // If the acceptance procedure accepts the new front B, update the current front A to be the same as B
-            if (acceptFrontA(objectiveValuesA, objectiveValuesB)) {
-                // Copy objective values from B to A
-                System.arraycopy(objectiveValuesB, 0, objectiveValuesA, 0, objectiveValuesA.length);
+            // Non-worsening acceptance: the candidate becomes the current solution by swapping indices
+            if (candidateCost <= currentCost) {
+                currentCost = candidateCost;
+                currentIndex = 1 - currentIndex;
+                candidateIndex = 1 - candidateIndex;
             }
-
-            // Update last heuristic application time
-            lastHeuristicApplicationTime = System.currentTimeMillis();
         }
 
-        // Print the best solution
-        UAVSolutionInterface bestSolution = ((UZFDomain) oProblem).getBestSolution();
-        SolutionPrinter solutionPrinter = new SolutionPrinter("out.csv");
-        solutionPrinter.printSolution(((UZFDomain) oProblem).getLoadedInstance().getSolutionAsListOfLocations(bestSolution));
-    }
-
-    // Applies a heuristic to the problem domain and returns the cost of the resulting solution.
-    private double applyHeuristicAndGetCost(ProblemDomain oProblem, int heuristicIndex, int currentIndex, int candidateIndex, boolean[] isCrossover) {
-        long startTime = System.currentTimeMillis();
-        double cost;
-        if (isCrossover[heuristicIndex]) {
-            oProblem.applyHeuristic(heuristicIndex, currentIndex, BEST_ACCEPTED_INDEX, candidateIndex);
-        } else {
-            oProblem.applyHeuristic(heuristicIndex, currentIndex, candidateIndex);
+        if (path != null) {
+            priors.save(path);
         }
-        cost = oProblem.getFunctionValue(candidateIndex);
-        oProblem.copySolution(candidateIndex, currentIndex); // Reset to the current solution
-        long lastHeuristicApplicationTime = System.currentTimeMillis() - startTime;
-        return cost;
-    }
 
-    // Applies a heuristic to the problem domain.
-    private void applyHeuristic(ProblemDomain oProblem, int heuristicIndex, int currentIndex, int candidateIndex, boolean[] isCrossover) {
-        if (isCrossover[heuristicIndex]) {
-            oProblem.applyHeuristic(heuristicIndex, currentIndex, BEST_ACCEPTED_INDEX, candidateIndex);
-        } else {
-            oProblem.applyHeuristic(heuristicIndex, currentIndex, candidateIndex);
-        }
-        oProblem.copySolution(candidateIndex, currentIndex); // Update the current solution
+        // Write the best solution and when each best solution was found
+        String runName = this + "-" + domain.getLoadedInstanceId() + "-" + lSeed;
+        SolutionWriter.writeRunOutput(domain, runName);
     }
 
-    // Determines whether to accept a new front based on its objective values.
-    private boolean acceptFrontA(double[] objectiveValuesA, double[] objectiveValuesB) {
-        for (int i = 0; i < objectiveValuesA.length; i++) {
-            // Non-worsening acceptance
-            if (objectiveValuesA[i] >= objectiveValuesB[i]) {
-                return true;
-            }
+    // Reads the priors of earlier runs, or creates empty ones if there are none for these heuristics.
+    private static HeuristicPriors loadPriors(Path path, int numberOfHeuristics) {
+        // Wait for the priors of earlier runs in this JVM to be written
+        HeuristicPriors priors = SolutionWriter.getShared().readAfterPendingWrites(path, HeuristicPriors::load);
+        if (priors != null && priors.getNumberOfHeuristics() == numberOfHeuristics) {
+            return priors;
         }
-        return false;
+        return new HeuristicPriors(numberOfHeuristics);
     }
 
-    // Calculates the first measure of the choice function for a heuristic.
-    private double calculateF1(int h, int[] rankedHeuristics) {
-        // Find the position of heuristic h in the ranked heuristics array
-        int position = -1;
-        for (int i = 0; i < rankedHeuristics.length; i++) {
-            if (rankedHeuristics[i] == h) {
-                position = i;
-                break;
+    // Applies a heuristic to the problem domain and returns the cost of the candidate solution.
+    private double applyHeuristic(ProblemDomain oProblem, int heuristicIndex, int currentIndex, int candidateIndex, boolean[] isCrossover) {
+        if (isCrossover[heuristicIndex]) {
+            // Randomly choose between the best accepted solution and a newly initialised one as the second parent
+            int parentIndex = rng.nextBoolean() ? BEST_ACCEPTED_INDEX : SECOND_PARENT_INDEX;
+            if (parentIndex == SECOND_PARENT_INDEX) {
+                oProblem.initialiseSolution(SECOND_PARENT_INDEX);
             }
+            return oProblem.applyHeuristic(heuristicIndex, currentIndex, parentIndex, candidateIndex);
         }
-        // If the heuristic is not found in the ranked heuristics array, return 0
-        if (position == -1) {
-            return 0.0;
-        }
-        // Otherwise, return the performance based on the position (e.g., inverse of position)
-        return 1.0 / (position + 1); // Adding 1 to avoid division by zero
-    }
-
-    // Calculates the second measure of the choice function for a heuristic.
-    private double calculateF2(long lastHeuristicApplicationTime) {
-        // Return the elapsed time
-        return lastHeuristicApplicationTime / 1000.0; // Convert milliseconds to seconds
+        return oProblem.applyHeuristic(heuristicIndex, currentIndex, candidateIndex);
     }
 
     @Override
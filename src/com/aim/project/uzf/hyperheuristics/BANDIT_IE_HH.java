@@ -0,0 +1,47 @@
+package com.aim.project.uzf.hyperheuristics;
+
+import com.aim.project.uzf.UZFDomain;
+import com.aim.project.uzf.hyperheuristics.acceptance.ImprovingOrEqualAcceptance;
+import com.aim.project.uzf.hyperheuristics.selection.BanditSelection;
+
+import java.util.Random;
+
+/**
+ * Selects low-level heuristics with a {@link SlidingWindowBandit} and accepts improving or equal candidates, i.e.
+ * the {@link COMPOSED_HH} of a {@link BanditSelection} and an {@link ImprovingOrEqualAcceptance}.
+ * <br>
+ * The reward of a call is the improvement relative to the current cost per nanosecond of the heuristic's runtime,
+ * as measured by {@link UZFDomain#getLastHeuristicRuntime()}, so a cheap heuristic that improves a little can
+ * outscore an expensive one that improves more. Worsening calls are rewarded with 0.
+ */
+public class BANDIT_IE_HH extends COMPOSED_HH {
+
+	public static final int DEFAULT_WINDOW_SIZE = 200;
+	public static final double DEFAULT_EXPLORATION = 0.5;
+
+	private final SlidingWindowBandit.Policy policy;
+
+	public BANDIT_IE_HH(long lSeed) {
+
+		this(lSeed, SlidingWindowBandit.Policy.UCB, DEFAULT_WINDOW_SIZE, DEFAULT_EXPLORATION);
+	}
+
+	/**
+	 * @param lSeed The seed for random number generation.
+	 * @param policy How the bandit scores the heuristics.
+	 * @param windowSize The number of most recent heuristic calls the bandit learns from.
+	 * @param exploration The constant of the UCB exploration term.
+	 */
+	public BANDIT_IE_HH(long lSeed, SlidingWindowBandit.Policy policy, int windowSize, double exploration) {
+
+		super(lSeed, new BanditSelection(policy, windowSize, exploration, new Random(lSeed)),
+				new ImprovingOrEqualAcceptance());
+		this.policy = policy;
+	}
+
+	@Override
+	public String toString() {
+
+		return policy == SlidingWindowBandit.Policy.UCB ? "SW_UCB_IE_HH" : "SW_TS_IE_HH";
+	}
+}
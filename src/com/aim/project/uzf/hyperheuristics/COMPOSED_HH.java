@@ -0,0 +1,93 @@
+package com.aim.project.uzf.hyperheuristics;
+
+import com.aim.project.uzf.UZFDomain;
+import com.aim.project.uzf.interfaces.HeuristicSelectionInterface;
+import com.aim.project.uzf.interfaces.MoveAcceptanceInterface;
+import com.aim.project.uzf.output.SolutionWriter;
+
+import AbstractClasses.HyperHeuristic;
+import AbstractClasses.ProblemDomain;
+
+/**
+ * Selection hyper-heuristic combining any {@link HeuristicSelectionInterface} with any
+ * {@link MoveAcceptanceInterface}, e.g. a choice function with late acceptance. It is named after its parts, such as
+ * {@code COMPOSED_CF_LAHC_HH}, so that its output never clashes with that of a dedicated hyper-heuristic.
+ * <br>
+ * The selection learns from the improvement relative to the current cost and the runtime of every call, as measured
+ * by {@link UZFDomain#getLastHeuristicRuntime()}. The acceptance sees the share of the time limit that has elapsed,
+ * so time-based schedules span the whole run.
+ */
+public class COMPOSED_HH extends HyperHeuristic {
+
+	private final long lSeed;
+	private final HeuristicSelectionInterface selection;
+	private final MoveAcceptanceInterface acceptance;
+
+	/**
+	 * @param lSeed The seed for random number generation.
+	 * @param selection Chooses the heuristic to apply next.
+	 * @param acceptance Decides whether to move to the candidate solution.
+	 */
+	public COMPOSED_HH(long lSeed, HeuristicSelectionInterface selection, MoveAcceptanceInterface acceptance) {
+
+		super(lSeed);
+		this.lSeed = lSeed;
+		this.selection = selection;
+		this.acceptance = acceptance;
+	}
+
+	@Override
+	protected void solve(ProblemDomain oProblem) {
+
+		oProblem.setMemorySize(CrossoverPartners.MEMORY_SIZE);
+
+		int currentIndex = 0;
+		int candidateIndex = 1;
+		oProblem.initialiseSolution(currentIndex);
+		oProblem.copySolution(currentIndex, CrossoverPartners.BEST_ACCEPTED_INDEX);
+
+		double currentCost = oProblem.getFunctionValue(currentIndex);
+		double bestAcceptedCost = currentCost;
+		UZFDomain oDomain = (UZFDomain) oProblem;
+		CrossoverPartners partners = new CrossoverPartners(oProblem);
+
+		selection.initialise(oProblem.getNumberOfHeuristics());
+		acceptance.initialise(currentCost);
+
+		// main search loop
+		double candidateCost;
+		while(!hasTimeExpired()) {
+
+			int h = selection.select();
+			candidateCost = partners.apply(oProblem, rng, h, currentIndex, candidateIndex);
+
+			selection.update(h, (currentCost - candidateCost) / currentCost, oDomain.getLastHeuristicRuntime());
+
+			// update best accepted, the partner for crossovers
+			if(candidateCost < bestAcceptedCost) {
+
+				bestAcceptedCost = candidateCost;
+				oProblem.copySolution(candidateIndex, CrossoverPartners.BEST_ACCEPTED_INDEX);
+			}
+
+			// move to the candidate by swapping indices if the acceptance agrees
+			double progress = Math.min(1, (double) getElapsedTime() / getTimeLimit());
+			if(acceptance.accept(currentCost, candidateCost, progress)) {
+
+				currentCost = candidateCost;
+				currentIndex = 1 - currentIndex;
+				candidateIndex = 1 - candidateIndex;
+			}
+		}
+
+
+		String runName = this + "-" + oDomain.getLoadedInstanceId() + "-" + lSeed;
+		SolutionWriter.writeRunOutput(oDomain, runName);
+	}
+
+	@Override
+	public String toString() {
+
+		return "COMPOSED_" + selection + "_" + acceptance + "_HH";
+	}
+}
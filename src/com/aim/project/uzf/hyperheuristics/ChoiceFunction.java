@@ -0,0 +1,220 @@
+package com.aim.project.uzf.hyperheuristics;
+
+import java.util.Arrays;
+
+/**
+ * Choice function scores of the low-level heuristics, kept in primitive arrays and updated in constant time after
+ * every heuristic call:
+ * <pre>{@code
+ * f1(h)    = I(h) / T(h) + phi * f1(h)                  improvement per nanosecond of the last call of h
+ * f2(g, h) = I(g, h) / T(g, h) + phi * f2(g, h)         the same for the last time h was called right after g
+ * f3(h)    = now - last call of h                       nanoseconds since h was last called
+ * CF(h)    = w * (alpha * f1(h) / max|f1| + beta * f2(previous, h) / max|f2(previous)|)
+ *          + (1 - w) * gamma * f3(h) / max f3
+ * }</pre>
+ * Each measure is divided by its largest magnitude among the heuristics at the time of selection, so all three lie in
+ * [-1, 1] whatever the scale of the improvements and timer, and alpha, beta and gamma weigh them against each other
+ * directly. Without this, f3 in nanoseconds would outweigh the improvements per nanosecond and the selection would
+ * degrade to calling the heuristics in turn.
+ * <br>
+ * Improvements are signed, so worsening calls lower a score. The weight w adapts the balance between intensification
+ * and diversification: it is set to {@value #MAX_INTENSITY} after an improving call and lowered by
+ * {@value #INTENSITY_STEP} after every other call, so the longer the search stagnates, the more the heuristics not
+ * called for a while are favoured. Selecting the heuristic with the largest score takes a few passes over the heuristics
+ * without sorting or allocating.
+ */
+public class ChoiceFunction {
+
+	public static final double MAX_INTENSITY = 0.99;
+	public static final double MIN_INTENSITY = 0.01;
+	public static final double INTENSITY_STEP = 0.01;
+
+	private final int numberOfHeuristics;
+	private final double alpha;
+	private final double beta;
+	private final double gamma;
+	private final double phi;
+
+	private final double[] f1;
+	// Row g holds f2(g, h) for every h
+	private final double[] f2;
+	private final long[] lastCallTime;
+	private double intensity = MAX_INTENSITY;
+
+	// The previous call, which pairs with the next one for f2
+	private int previousHeuristic = -1;
+	private double previousImprovement;
+	private long previousRuntime;
+
+	/**
+	 * @param numberOfHeuristics The number of low-level heuristics to choose from.
+	 * @param alpha The weight of f1, relative to the largest magnitude of f1 among the heuristics.
+	 * @param beta The weight of f2, relative to the largest magnitude of f2 after the previous heuristic.
+	 * @param gamma The weight of f3, relative to the heuristic not called for the longest time.
+	 * @param phi How much of the previous f1 and f2 values is kept on each update, in [0,1).
+	 * @param startTime The {@link System#nanoTime()} that f3 is measured from for heuristics not yet called.
+	 */
+	public ChoiceFunction(int numberOfHeuristics, double alpha, double beta, double gamma, double phi, long startTime) {
+
+		this.numberOfHeuristics = numberOfHeuristics;
+		this.alpha = alpha;
+		this.beta = beta;
+		this.gamma = gamma;
+		this.phi = phi;
+		this.f1 = new double[numberOfHeuristics];
+		this.f2 = new double[numberOfHeuristics * numberOfHeuristics];
+		this.lastCallTime = new long[numberOfHeuristics];
+		Arrays.fill(lastCallTime, startTime);
+	}
+
+	/**
+	 * Records a call of a heuristic.
+	 *
+	 * @param heuristic The heuristic that was called.
+	 * @param improvement The decrease in objective value it achieved (negative if it worsened the solution).
+	 * @param runtime The nanoseconds the call took.
+	 * @param endTime The {@link System#nanoTime()} at which the call finished.
+	 */
+	public void update(int heuristic, double improvement, long runtime, long endTime) {
+
+		// Avoid dividing by zero for calls faster than the timer resolution
+		long time = Math.max(1, runtime);
+		f1[heuristic] = improvement / time + phi * f1[heuristic];
+
+		if (previousHeuristic >= 0) {
+			int pair = previousHeuristic * numberOfHeuristics + heuristic;
+			f2[pair] = (previousImprovement + improvement) / (previousRuntime + time) + phi * f2[pair];
+		}
+
+		// Intensify after an improvement, otherwise shift the weight towards diversification
+		intensity = improvement > 0 ? MAX_INTENSITY : Math.max(MIN_INTENSITY, intensity - INTENSITY_STEP);
+
+		lastCallTime[heuristic] = endTime;
+		previousHeuristic = heuristic;
+		previousImprovement = improvement;
+		previousRuntime = time;
+	}
+
+	/**
+	 * Sets the improvement per nanosecond of a heuristic from earlier runs, in place of calling it first. Unlike
+	 * {@link #update}, this does not count as a call.
+	 *
+	 * @param heuristic The heuristic the statistics are of.
+	 * @param improvement Its mean decrease in objective value.
+	 * @param runtime Its mean nanoseconds per call.
+	 */
+	public void prime(int heuristic, double improvement, double runtime) {
+
+		f1[heuristic] = improvement / Math.max(1, runtime);
+	}
+
+	/**
+	 * @param now The current {@link System#nanoTime()}.
+	 * @return The heuristic with the largest score, the lowest index among equal scores.
+	 */
+	public int select(long now) {
+
+		double f1Scale = getF1Scale();
+		double f2Scale = getF2Scale();
+		double f3Scale = getF3Scale(now);
+
+		int best = 0;
+		double bestScore = score(0, now, f1Scale, f2Scale, f3Scale);
+		for (int h = 1; h < numberOfHeuristics; h++) {
+			double score = score(h, now, f1Scale, f2Scale, f3Scale);
+			if (score > bestScore) {
+				best = h;
+				bestScore = score;
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * @return The choice function value of the heuristic, following the previously called one.
+	 */
+	public double score(int heuristic, long now) {
+
+		return score(heuristic, now, getF1Scale(), getF2Scale(), getF3Scale(now));
+	}
+
+	// Helper method to calculate the score with each measure divided by its largest magnitude
+	private double score(int heuristic, long now, double f1Scale, double f2Scale, double f3Scale) {
+
+		double performance = alpha * f1[heuristic] / f1Scale;
+		if (previousHeuristic >= 0) {
+			performance += beta * f2[previousHeuristic * numberOfHeuristics + heuristic] / f2Scale;
+		}
+
+		return intensity * performance + (1 - intensity) * gamma * getF3(heuristic, now) / f3Scale;
+	}
+
+	// Helper method to get the largest magnitude of f1
+	private double getF1Scale() {
+
+		return getScale(f1, 0, numberOfHeuristics);
+	}
+
+	// Helper method to get the largest magnitude of f2 after the previous heuristic
+	private double getF2Scale() {
+
+		return previousHeuristic < 0 ? 1
+				: getScale(f2, previousHeuristic * numberOfHeuristics, (previousHeuristic + 1) * numberOfHeuristics);
+	}
+
+	// Helper method to get the time since the heuristic not called for the longest time was last called
+	private double getF3Scale(long now) {
+
+		long oldest = lastCallTime[0];
+		for (int h = 1; h < numberOfHeuristics; h++) {
+			oldest = Math.min(oldest, lastCallTime[h]);
+		}
+
+		return Math.max(1, now - oldest);
+	}
+
+	// Helper method to get the largest magnitude of the values from index from to index to, or 1 if all are 0
+	private static double getScale(double[] values, int from, int to) {
+
+		double scale = 0;
+		for (int i = from; i < to; i++) {
+			scale = Math.max(scale, Math.abs(values[i]));
+		}
+
+		return scale > 0 ? scale : 1;
+	}
+
+	public double getF1(int heuristic) {
+
+		return f1[heuristic];
+	}
+
+	public double getF2(int previous, int heuristic) {
+
+		return f2[previous * numberOfHeuristics + heuristic];
+	}
+
+	// Gets the nanoseconds since the heuristic was last called
+	public long getF3(int heuristic, long now) {
+
+		return now - lastCallTime[heuristic];
+	}
+
+	// Gets the current weight of f1 and f2 against f3
+	public double getIntensity() {
+
+		return intensity;
+	}
+
+	// Gets the heuristic called last, or -1 before the first update
+	public int getPreviousHeuristic() {
+
+		return previousHeuristic;
+	}
+
+	public int getNumberOfHeuristics() {
+
+		return numberOfHeuristics;
+	}
+}
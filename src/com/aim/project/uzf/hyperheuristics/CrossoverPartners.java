@@ -0,0 +1,56 @@
+package com.aim.project.uzf.hyperheuristics;
+
+import java.util.Random;
+
+import AbstractClasses.ProblemDomain;
+
+/**
+ * Applies low-level heuristics for the single-point hyper-heuristics, choosing the second parent of crossovers at
+ * random between a newly initialised solution and the best solution accepted so far.
+ * <br>
+ * The hyper-heuristics keep the current and candidate solutions in memory indices 0 and 1 and copy every new best
+ * accepted solution to {@link #BEST_ACCEPTED_INDEX}.
+ */
+final class CrossoverPartners {
+
+	static final int MEMORY_SIZE = 4;
+	static final int SECOND_PARENT_INDEX = 2;
+	static final int BEST_ACCEPTED_INDEX = 3;
+
+	private final boolean[] isCrossover;
+
+	/**
+	 * @param oProblem The problem whose crossover heuristics to look up.
+	 */
+	CrossoverPartners(ProblemDomain oProblem) {
+
+		isCrossover = new boolean[oProblem.getNumberOfHeuristics()];
+		for (int i : oProblem.getHeuristicsOfType(ProblemDomain.HeuristicType.CROSSOVER)) {
+			isCrossover[i] = true;
+		}
+	}
+
+	/**
+	 * @param oProblem The problem to apply the heuristic to.
+	 * @param rng The random number generator choosing the second parent of crossovers.
+	 * @param h The heuristic to apply.
+	 * @param currentIndex The memory index of the current solution.
+	 * @param candidateIndex The memory index to write the candidate solution to.
+	 * @return The objective value of the candidate solution.
+	 */
+	double apply(ProblemDomain oProblem, Random rng, int h, int currentIndex, int candidateIndex) {
+
+		if (!isCrossover[h]) {
+			return oProblem.applyHeuristic(h, currentIndex, candidateIndex);
+		}
+
+		if (rng.nextBoolean()) {
+			// randomly choose between crossover with newly initialised solution
+			oProblem.initialiseSolution(SECOND_PARENT_INDEX);
+			return oProblem.applyHeuristic(h, currentIndex, SECOND_PARENT_INDEX, candidateIndex);
+		}
+
+		// or with best solution accepted so far
+		return oProblem.applyHeuristic(h, currentIndex, BEST_ACCEPTED_INDEX, candidateIndex);
+	}
+}
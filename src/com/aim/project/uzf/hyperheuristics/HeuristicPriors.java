@@ -0,0 +1,153 @@
+package com.aim.project.uzf.hyperheuristics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.aim.project.uzf.output.SolutionWriter;
+
+/**
+ * Performance statistics of the low-level heuristics that outlive a run: the number of calls, the mean improvement
+ * relative to the current cost, the mean nanoseconds per call and the share of calls that improved.
+ * <br>
+ * A hyper-heuristic can start from the priors learned on the same instance, or on instances with the same features,
+ * instead of trying every heuristic first. Priors are kept in the {@value #PRIORS_DIRECTORY_PROPERTY} directory,
+ * one file per key, saved as {@link #MAGIC}, {@link #VERSION} and the number of heuristics followed by the
+ * statistics of each heuristic, all little-endian.
+ */
+public class HeuristicPriors {
+
+	public static final String PRIORS_DIRECTORY_PROPERTY = "uzf.priors.dir";
+
+	// "UZFP" when read as little-endian bytes
+	public static final int MAGIC = 0x50465A55;
+	public static final int VERSION = 1;
+
+	private static final int HEADER_BYTES = 3 * Integer.BYTES;
+	private static final int HEURISTIC_BYTES = 4 * Long.BYTES;
+
+	private final int numberOfHeuristics;
+	private final long[] calls;
+	private final long[] successes;
+	private final double[] improvementSum;
+	private final long[] runtimeSum;
+
+	public HeuristicPriors(int numberOfHeuristics) {
+
+		this.numberOfHeuristics = numberOfHeuristics;
+		this.calls = new long[numberOfHeuristics];
+		this.successes = new long[numberOfHeuristics];
+		this.improvementSum = new double[numberOfHeuristics];
+		this.runtimeSum = new long[numberOfHeuristics];
+	}
+
+	/**
+	 * Records a call of a heuristic.
+	 *
+	 * @param heuristic The heuristic that was called.
+	 * @param improvement The decrease in objective value relative to the current cost (negative if it worsened).
+	 * @param runtime The nanoseconds the call took.
+	 */
+	public void record(int heuristic, double improvement, long runtime) {
+
+		calls[heuristic]++;
+		if (improvement > 0) {
+			successes[heuristic]++;
+		}
+		improvementSum[heuristic] += improvement;
+		runtimeSum[heuristic] += Math.max(1, runtime);
+	}
+
+	public long getCalls(int heuristic) {
+
+		return calls[heuristic];
+	}
+
+	public double getMeanImprovement(int heuristic) {
+
+		return calls[heuristic] == 0 ? 0 : improvementSum[heuristic] / calls[heuristic];
+	}
+
+	// Gets the mean nanoseconds per call
+	public double getMeanRuntime(int heuristic) {
+
+		return calls[heuristic] == 0 ? 0 : (double) runtimeSum[heuristic] / calls[heuristic];
+	}
+
+	// Gets the share of calls that improved the solution
+	public double getSuccessRate(int heuristic) {
+
+		return calls[heuristic] == 0 ? 0 : (double) successes[heuristic] / calls[heuristic];
+	}
+
+	public int getNumberOfHeuristics() {
+
+		return numberOfHeuristics;
+	}
+
+	/**
+	 * @param key Identifies what the priors were learned on, e.g. the hyper-heuristic and instance.
+	 * @return The path in the {@value #PRIORS_DIRECTORY_PROPERTY} directory, or <code>null</code> if the property
+	 * is not set and priors are therefore not persisted.
+	 */
+	public static Path getPriorsPath(String key) {
+
+		String directory = System.getProperty(PRIORS_DIRECTORY_PROPERTY);
+		return directory == null ? null : Path.of(directory, key + ".priors");
+	}
+
+	/**
+	 * Queues a snapshot of the priors to be written by the shared {@link SolutionWriter}. The file is replaced
+	 * atomically, so a run loading it never reads half-written priors.
+	 */
+	public void save(Path path) {
+
+		long[] callsSnapshot = calls.clone();
+		long[] successesSnapshot = successes.clone();
+		double[] improvementSnapshot = improvementSum.clone();
+		long[] runtimeSnapshot = runtimeSum.clone();
+		SolutionWriter.getShared().writeAtomically(path, out -> {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(numberOfHeuristics);
+			for (int h = 0; h < numberOfHeuristics; h++) {
+				out.writeLong(callsSnapshot[h]);
+				out.writeLong(successesSnapshot[h]);
+				out.writeLong(Double.doubleToRawLongBits(improvementSnapshot[h]));
+				out.writeLong(runtimeSnapshot[h]);
+			}
+		});
+	}
+
+	/**
+	 * Priors saved earlier in this JVM may still be queued, so read through
+	 * {@link SolutionWriter#readAfterPendingWrites(Path, SolutionWriter.Reader)}.
+	 *
+	 * @param path A file written by {@link #save(Path)}.
+	 * @return The priors read from the file.
+	 */
+	public static HeuristicPriors load(Path path) throws IOException {
+
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+			throw new IOException("Not a heuristic priors file: " + path);
+		}
+
+		int numberOfHeuristics = buffer.getInt();
+		if (numberOfHeuristics < 0 || buffer.remaining() != (long) numberOfHeuristics * HEURISTIC_BYTES) {
+			throw new IOException("Truncated heuristic priors file: " + path);
+		}
+
+		HeuristicPriors priors = new HeuristicPriors(numberOfHeuristics);
+		for (int h = 0; h < numberOfHeuristics; h++) {
+			priors.calls[h] = buffer.getLong();
+			priors.successes[h] = buffer.getLong();
+			priors.improvementSum[h] = Double.longBitsToDouble(buffer.getLong());
+			priors.runtimeSum[h] = buffer.getLong();
+		}
+
+		return priors;
+	}
+}
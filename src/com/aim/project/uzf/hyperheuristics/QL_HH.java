@@ -0,0 +1,188 @@
+package com.aim.project.uzf.hyperheuristics;
+
+import com.aim.project.uzf.UZFDomain;
+import com.aim.project.uzf.hyperheuristics.acceptance.LateAcceptance;
+import com.aim.project.uzf.interfaces.MoveAcceptanceInterface;
+import com.aim.project.uzf.output.SolutionWriter;
+
+import AbstractClasses.HyperHeuristic;
+import AbstractClasses.ProblemDomain;
+
+import java.nio.file.Path;
+
+/**
+ * Selects low-level heuristics with tabular Q-learning, so the choice can depend on the search state rather than
+ * only on each heuristic's average performance. The state combines:
+ * <ul>
+ * <li>the last heuristic applied, or none at the start;</li>
+ * <li>the stagnation, as a bucket of the calls since the best accepted cost last improved: 0, 1-9, 10-99 or more;</li>
+ * <li>the gap of the current cost to the best accepted cost, as a bucket: none, below 0.1%, below 1% or more.</li>
+ * </ul>
+ * The reward of a call is the improvement relative to the current cost per millisecond of the heuristic's runtime,
+ * as measured by {@link UZFDomain#getLastHeuristicRuntime()}. Worsening calls are rewarded with 0. Heuristics are
+ * chosen epsilon-greedily and candidates are accepted by any {@link MoveAcceptanceInterface}, late acceptance by
+ * default so that a sequence of heuristics can pay off.
+ * <br>
+ * Given a table path, the Q-table is read from it before the search, if it exists and matches the number of
+ * heuristics, and saved to it afterwards, so runs on similar instances can warm-start.
+ */
+public class QL_HH extends HyperHeuristic {
+
+	public static final double DEFAULT_LEARNING_RATE = 0.1;
+	public static final double DEFAULT_DISCOUNT = 0.9;
+	public static final double DEFAULT_EPSILON = 0.1;
+
+	private static final int STAGNATION_BUCKETS = 4;
+	private static final int GAP_BUCKETS = 4;
+
+	private static final double NANOSECONDS_PER_MILLISECOND = 1_000_000.0;
+
+	private final long lSeed;
+	private final MoveAcceptanceInterface acceptance;
+	private final Path tablePath;
+	private final double learningRate;
+	private final double discount;
+	private final double epsilon;
+
+	private QTable qTable;
+
+	public QL_HH(long lSeed) {
+
+		this(lSeed, new LateAcceptance(), null);
+	}
+
+	public QL_HH(long lSeed, MoveAcceptanceInterface acceptance, Path tablePath) {
+
+		this(lSeed, acceptance, tablePath, DEFAULT_LEARNING_RATE, DEFAULT_DISCOUNT, DEFAULT_EPSILON);
+	}
+
+	/**
+	 * @param lSeed The seed for random number generation.
+	 * @param acceptance Decides whether to move to the candidate solution.
+	 * @param tablePath The file to warm-start the Q-table from and save it to, or null to learn from scratch.
+	 * @param learningRate The step size of the Q-learning update.
+	 * @param discount The weight of the value of the next state.
+	 * @param epsilon The probability of choosing a random heuristic rather than the best one for the state.
+	 */
+	public QL_HH(long lSeed, MoveAcceptanceInterface acceptance, Path tablePath, double learningRate, double discount,
+			double epsilon) {
+
+		super(lSeed);
+		this.lSeed = lSeed;
+		this.acceptance = acceptance;
+		this.tablePath = tablePath;
+		this.learningRate = learningRate;
+		this.discount = discount;
+		this.epsilon = epsilon;
+	}
+
+	@Override
+	protected void solve(ProblemDomain oProblem) {
+
+		oProblem.setMemorySize(CrossoverPartners.MEMORY_SIZE);
+
+		int currentIndex = 0;
+		int candidateIndex = 1;
+		oProblem.initialiseSolution(currentIndex);
+		oProblem.copySolution(currentIndex, CrossoverPartners.BEST_ACCEPTED_INDEX);
+
+		double currentCost = oProblem.getFunctionValue(currentIndex);
+		double bestAcceptedCost = currentCost;
+		int numberOfHeuristics = oProblem.getNumberOfHeuristics();
+		UZFDomain oDomain = (UZFDomain) oProblem;
+		CrossoverPartners partners = new CrossoverPartners(oProblem);
+
+		qTable = loadTable((numberOfHeuristics + 1) * STAGNATION_BUCKETS * GAP_BUCKETS, numberOfHeuristics);
+		acceptance.initialise(currentCost);
+
+		// no heuristic has been applied yet
+		int lastHeuristic = numberOfHeuristics;
+		int callsSinceImprovement = 0;
+		int state = getState(lastHeuristic, callsSinceImprovement, currentCost, bestAcceptedCost);
+
+		// main search loop
+		double candidateCost;
+		while(!hasTimeExpired()) {
+
+			int h = rng.nextDouble() < epsilon ? rng.nextInt(numberOfHeuristics) : qTable.getBestAction(state);
+			candidateCost = partners.apply(oProblem, rng, h, currentIndex, candidateIndex);
+
+			// reward the improvement per millisecond, relative to the current cost
+			double improvement = Math.max(0, currentCost - candidateCost) / currentCost;
+			double reward = improvement * NANOSECONDS_PER_MILLISECOND / Math.max(1, oDomain.getLastHeuristicRuntime());
+
+			// update best accepted, the partner for crossovers
+			if(candidateCost < bestAcceptedCost) {
+
+				bestAcceptedCost = candidateCost;
+				callsSinceImprovement = 0;
+				oProblem.copySolution(candidateIndex, CrossoverPartners.BEST_ACCEPTED_INDEX);
+			} else if(callsSinceImprovement < Integer.MAX_VALUE) {
+
+				callsSinceImprovement++;
+			}
+
+			// move to the candidate by swapping indices if the acceptance agrees
+			double progress = Math.min(1, (double) getElapsedTime() / getTimeLimit());
+			if(acceptance.accept(currentCost, candidateCost, progress)) {
+
+				currentCost = candidateCost;
+				currentIndex = 1 - currentIndex;
+				candidateIndex = 1 - candidateIndex;
+			}
+
+			int nextState = getState(h, callsSinceImprovement, currentCost, bestAcceptedCost);
+			double value = qTable.get(state, h);
+			qTable.set(state, h, value + learningRate * (reward + discount * qTable.getMaxValue(nextState) - value));
+			state = nextState;
+		}
+
+		if (tablePath != null) {
+			qTable.save(tablePath);
+		}
+
+		String runName = this + "-" + oDomain.getLoadedInstanceId() + "-" + lSeed;
+		SolutionWriter.writeRunOutput(oDomain, runName);
+	}
+
+	// Helper method to read the table to warm-start from, or to create an empty one if there is none that fits
+	private QTable loadTable(int numberOfStates, int numberOfActions) {
+
+		// Wait for the table of an earlier run in this JVM to be written
+		QTable table = SolutionWriter.getShared().readAfterPendingWrites(tablePath, QTable::load);
+		if (table != null && table.getNumberOfStates() == numberOfStates
+				&& table.getNumberOfActions() == numberOfActions) {
+			return table;
+		}
+
+		return new QTable(numberOfStates, numberOfActions);
+	}
+
+	// Helper method to encode the last heuristic, stagnation bucket and gap bucket as a row of the Q-table
+	private static int getState(int lastHeuristic, int callsSinceImprovement, double currentCost,
+			double bestAcceptedCost) {
+
+		int stagnation = callsSinceImprovement == 0 ? 0
+				: callsSinceImprovement < 10 ? 1
+				: callsSinceImprovement < 100 ? 2 : 3;
+
+		double gap = (currentCost - bestAcceptedCost) / bestAcceptedCost;
+		int gapBucket = gap <= 0 ? 0 : gap < 0.001 ? 1 : gap < 0.01 ? 2 : 3;
+
+		return (lastHeuristic * STAGNATION_BUCKETS + stagnation) * GAP_BUCKETS + gapBucket;
+	}
+
+	/**
+	 * @return The Q-table learned by the last call to solve, or null before the first.
+	 */
+	public QTable getQTable() {
+
+		return qTable;
+	}
+
+	@Override
+	public String toString() {
+
+		return "QL_" + acceptance + "_HH";
+	}
+}
@@ -0,0 +1,125 @@
+package com.aim.project.uzf.hyperheuristics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.aim.project.uzf.output.SolutionWriter;
+
+/**
+ * Action values of tabular Q-learning, one row of heuristic values per state, in a flat {@code double[]}.
+ * <br>
+ * Tables are saved as {@link #MAGIC}, {@link #VERSION}, the number of states and the number of actions, followed by
+ * the values row by row, all little-endian, so that a later run on a similar instance can start from them.
+ */
+public class QTable {
+
+	// "UZFQ" when read as little-endian bytes
+	public static final int MAGIC = 0x51465A55;
+	public static final int VERSION = 1;
+
+	private static final int HEADER_BYTES = 4 * Integer.BYTES;
+
+	private final int numberOfStates;
+	private final int numberOfActions;
+	private final double[] values;
+
+	public QTable(int numberOfStates, int numberOfActions) {
+
+		this(numberOfStates, numberOfActions, new double[numberOfStates * numberOfActions]);
+	}
+
+	private QTable(int numberOfStates, int numberOfActions, double[] values) {
+
+		this.numberOfStates = numberOfStates;
+		this.numberOfActions = numberOfActions;
+		this.values = values;
+	}
+
+	public double get(int state, int action) {
+
+		return values[state * numberOfActions + action];
+	}
+
+	public void set(int state, int action, double value) {
+
+		values[state * numberOfActions + action] = value;
+	}
+
+	// Gets the action with the largest value in the state, the lowest index among equal values
+	public int getBestAction(int state) {
+
+		int row = state * numberOfActions;
+		int best = 0;
+		for (int action = 1; action < numberOfActions; action++) {
+			if (values[row + action] > values[row + best]) {
+				best = action;
+			}
+		}
+
+		return best;
+	}
+
+	// Gets the largest value in the state
+	public double getMaxValue(int state) {
+
+		return get(state, getBestAction(state));
+	}
+
+	public int getNumberOfStates() {
+
+		return numberOfStates;
+	}
+
+	public int getNumberOfActions() {
+
+		return numberOfActions;
+	}
+
+	/**
+	 * Queues a snapshot of the table to be written by the shared {@link SolutionWriter}. The file is replaced
+	 * atomically, so a run loading it never reads a half-written table.
+	 */
+	public void save(Path path) {
+
+		double[] snapshot = values.clone();
+		SolutionWriter.getShared().writeAtomically(path, out -> {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(numberOfStates);
+			out.writeInt(numberOfActions);
+			for (double value : snapshot) {
+				out.writeLong(Double.doubleToRawLongBits(value));
+			}
+		});
+	}
+
+	/**
+	 * Tables saved earlier in this JVM may still be queued, so read through
+	 * {@link SolutionWriter#readAfterPendingWrites(Path, SolutionWriter.Reader)}.
+	 *
+	 * @param path A file written by {@link #save(Path)}.
+	 * @return The table read from the file.
+	 */
+	public static QTable load(Path path) throws IOException {
+
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+			throw new IOException("Not a Q-table file: " + path);
+		}
+
+		int numberOfStates = buffer.getInt();
+		int numberOfActions = buffer.getInt();
+		if (numberOfStates < 0 || numberOfActions < 0
+				|| buffer.remaining() != (long) numberOfStates * numberOfActions * Double.BYTES) {
+			throw new IOException("Truncated Q-table file: " + path);
+		}
+
+		double[] values = new double[numberOfStates * numberOfActions];
+		buffer.asDoubleBuffer().get(values);
+
+		return new QTable(numberOfStates, numberOfActions, values);
+	}
+}
@@ -2,8 +2,7 @@ package com.aim.project.uzf.hyperheuristics;
 
 
 import com.aim.project.uzf.UZFDomain;
-import com.aim.project.uzf.SolutionPrinter;
-import com.aim.project.uzf.interfaces.UAVSolutionInterface;
+import com.aim.project.uzf.output.SolutionWriter;
 
 import AbstractClasses.HyperHeuristic;
 import AbstractClasses.ProblemDomain;
@@ -16,9 +15,12 @@ public class SR_IE_HH extends HyperHeuristic {
 
 	static final int BEST_ACCEPTED_INDEX = 3;
 
+	private final long lSeed;
+
 	public SR_IE_HH(long lSeed) {
 
 		super(lSeed);
+		this.lSeed = lSeed;
 	}
 
 	@Override
@@ -78,9 +80,9 @@ public class SR_IE_HH extends HyperHeuristic {
 		}
 
 
-		UAVSolutionInterface oSolution = ((UZFDomain) oProblem).getBestSolution();
-		SolutionPrinter oSolutionPrinter = new SolutionPrinter("out.csv");
-		oSolutionPrinter.printSolution( ((UZFDomain) oProblem).getLoadedInstance().getSolutionAsListOfLocations(oSolution));
+		UZFDomain oDomain = (UZFDomain) oProblem;
+		String runName = this + "-" + oDomain.getLoadedInstanceId() + "-" + lSeed;
+		SolutionWriter.writeRunOutput(oDomain, runName);
 	}
 
 	@Override
@@ -0,0 +1,152 @@
+package com.aim.project.uzf.hyperheuristics;
+
+import java.util.Random;
+
+/**
+ * Multi-armed bandit over the low-level heuristics that only remembers the rewards of the last calls, so that it
+ * follows the changing usefulness of the heuristics as the search progresses.
+ * <br>
+ * The window is a ring buffer of the last {@code windowSize} (arm, reward) pairs, and the reward sum and call count of
+ * every arm are updated in constant time as calls enter and leave it. Mean rewards are normalised by the largest mean
+ * reward of an arm in the window, so the best arm scores 1 whatever the scale of the rewards, and a single large reward
+ * only lifts the mean of its own arm, and only until it leaves the window. An arm without calls in the window is
+ * always tried first, then arms are scored by either
+ * <ul>
+ * <li>{@link Policy#UCB}: {@code mean(a) + c * sqrt(2 ln(calls in window) / calls(a))}, or</li>
+ * <li>{@link Policy#THOMPSON}: a sample of a normal distribution around {@code mean(a)} with standard deviation
+ * {@code 1 / sqrt(calls(a) + 1)}.</li>
+ * </ul>
+ */
+public class SlidingWindowBandit {
+
+	public enum Policy {
+		UCB,
+		THOMPSON
+	}
+
+	private final Policy policy;
+	private final int numberOfArms;
+	private final double exploration;
+	private final Random random;
+
+	// Ring buffer of the calls in the window, oldest at windowStart
+	private final int[] windowArms;
+	private final double[] windowRewards;
+	private int windowStart;
+	private int windowLength;
+
+	private final double[] rewardSums;
+	private final int[] callCounts;
+
+	/**
+	 * @param policy How arms are scored.
+	 * @param numberOfArms The number of low-level heuristics.
+	 * @param windowSize The number of most recent calls whose rewards are kept.
+	 * @param exploration The constant c of the UCB exploration term (unused by Thompson sampling).
+	 * @param random The random number generator used for Thompson sampling.
+	 */
+	public SlidingWindowBandit(Policy policy, int numberOfArms, int windowSize, double exploration, Random random) {
+
+		this.policy = policy;
+		this.numberOfArms = numberOfArms;
+		this.exploration = exploration;
+		this.random = random;
+		this.windowArms = new int[windowSize];
+		this.windowRewards = new double[windowSize];
+		this.rewardSums = new double[numberOfArms];
+		this.callCounts = new int[numberOfArms];
+	}
+
+	/**
+	 * @return The arm to pull next.
+	 */
+	public int select() {
+
+		for (int arm = 0; arm < numberOfArms; arm++) {
+			if (callCounts[arm] == 0) {
+				return arm;
+			}
+		}
+
+		double scale = getRewardScale();
+		int best = -1;
+		double bestScore = Double.NEGATIVE_INFINITY;
+		for (int arm = 0; arm < numberOfArms; arm++) {
+			double mean = getMeanReward(arm, scale);
+			double score = switch (policy) {
+				case UCB -> mean + exploration * Math.sqrt(2 * Math.log(windowLength) / callCounts[arm]);
+				case THOMPSON -> mean + random.nextGaussian() / Math.sqrt(callCounts[arm] + 1);
+			};
+			if (score > bestScore) {
+				best = arm;
+				bestScore = score;
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * Adds the reward of a call to the window, dropping the oldest call once the window is full.
+	 *
+	 * @param arm The arm that was pulled.
+	 * @param reward The reward of the call, at least 0.
+	 */
+	public void update(int arm, double reward) {
+
+		if (windowLength == windowArms.length) {
+			int oldest = windowArms[windowStart];
+			callCounts[oldest]--;
+			// Reset instead of subtracting the last reward to keep rounding errors from accumulating
+			rewardSums[oldest] = callCounts[oldest] == 0 ? 0 : rewardSums[oldest] - windowRewards[windowStart];
+			windowStart = (windowStart + 1) % windowArms.length;
+			windowLength--;
+		}
+
+		int end = (windowStart + windowLength) % windowArms.length;
+		windowArms[end] = arm;
+		windowRewards[end] = reward;
+		windowLength++;
+		callCounts[arm]++;
+		rewardSums[arm] += reward;
+	}
+
+	// Gets the mean reward of the arm's calls in the window, normalised to [0,1]
+	public double getMeanReward(int arm) {
+
+		return getMeanReward(arm, getRewardScale());
+	}
+
+	// Helper method to get the mean reward of the arm's calls in the window divided by scale
+	private double getMeanReward(int arm, double scale) {
+
+		if (callCounts[arm] == 0 || scale == 0) {
+			return 0;
+		}
+		return rewardSums[arm] / callCounts[arm] / scale;
+	}
+
+	// Helper method to get the largest mean reward of an arm in the window
+	private double getRewardScale() {
+
+		double scale = 0;
+		for (int arm = 0; arm < numberOfArms; arm++) {
+			if (callCounts[arm] > 0) {
+				scale = Math.max(scale, rewardSums[arm] / callCounts[arm]);
+			}
+		}
+
+		return scale;
+	}
+
+	// Gets the number of calls of the arm in the window
+	public int getCallCount(int arm) {
+
+		return callCounts[arm];
+	}
+
+	public Policy getPolicy() {
+
+		return policy;
+	}
+}
@@ -0,0 +1,54 @@
+package com.aim.project.uzf.hyperheuristics.acceptance;
+
+import com.aim.project.uzf.interfaces.MoveAcceptanceInterface;
+
+/**
+ * Great deluge: a candidate is accepted if it is not worse than the current solution or not above the water level.
+ * The level falls linearly with elapsed time from the initial cost to a target share of it.
+ */
+public class GreatDelugeAcceptance implements MoveAcceptanceInterface {
+
+	public static final double DEFAULT_TARGET_FRACTION = 0.8;
+
+	private final double targetFraction;
+	private double initialLevel;
+	private double targetLevel;
+
+	public GreatDelugeAcceptance() {
+
+		this(DEFAULT_TARGET_FRACTION);
+	}
+
+	/**
+	 * @param targetFraction The level at the end of the time limit, as a share of the initial cost.
+	 */
+	public GreatDelugeAcceptance(double targetFraction) {
+
+		this.targetFraction = targetFraction;
+	}
+
+	@Override
+	public void initialise(double initialCost) {
+
+		initialLevel = initialCost;
+		targetLevel = targetFraction * initialCost;
+	}
+
+	@Override
+	public boolean accept(double currentCost, double candidateCost, double progress) {
+
+		return candidateCost <= currentCost || candidateCost <= getLevel(progress);
+	}
+
+	// Gets the water level once the given share of the time limit has elapsed
+	public double getLevel(double progress) {
+
+		return initialLevel + (targetLevel - initialLevel) * Math.min(1, progress);
+	}
+
+	@Override
+	public String toString() {
+
+		return "GD";
+	}
+}
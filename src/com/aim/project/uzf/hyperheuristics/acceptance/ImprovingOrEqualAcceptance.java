@@ -0,0 +1,25 @@
+package com.aim.project.uzf.hyperheuristics.acceptance;
+
+import com.aim.project.uzf.interfaces.MoveAcceptanceInterface;
+
+/**
+ * Accepts candidates that are not worse than the current solution.
+ */
+public class ImprovingOrEqualAcceptance implements MoveAcceptanceInterface {
+
+	@Override
+	public void initialise(double initialCost) {
+	}
+
+	@Override
+	public boolean accept(double currentCost, double candidateCost, double progress) {
+
+		return candidateCost <= currentCost;
+	}
+
+	@Override
+	public String toString() {
+
+		return "IE";
+	}
+}
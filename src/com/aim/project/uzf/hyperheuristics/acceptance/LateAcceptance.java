@@ -0,0 +1,55 @@
+package com.aim.project.uzf.hyperheuristics.acceptance;
+
+import java.util.Arrays;
+
+import com.aim.project.uzf.interfaces.MoveAcceptanceInterface;
+
+/**
+ * Late Acceptance Hill Climbing: a candidate is accepted if it is not worse than the current solution, or than the
+ * current solution was a fixed number of decisions ago. The costs of the past current solutions are kept in a
+ * circular array.
+ */
+public class LateAcceptance implements MoveAcceptanceInterface {
+
+	public static final int DEFAULT_HISTORY_LENGTH = 50;
+
+	private final double[] history;
+	private long iteration;
+
+	public LateAcceptance() {
+
+		this(DEFAULT_HISTORY_LENGTH);
+	}
+
+	/**
+	 * @param historyLength The number of decisions ago the candidate is compared against.
+	 */
+	public LateAcceptance(int historyLength) {
+
+		this.history = new double[historyLength];
+	}
+
+	@Override
+	public void initialise(double initialCost) {
+
+		Arrays.fill(history, initialCost);
+		iteration = 0;
+	}
+
+	@Override
+	public boolean accept(double currentCost, double candidateCost, double progress) {
+
+		int slot = (int) (iteration++ % history.length);
+		boolean accepted = candidateCost <= currentCost || candidateCost <= history[slot];
+		// Remember the cost of the current solution after this decision
+		history[slot] = accepted ? candidateCost : currentCost;
+
+		return accepted;
+	}
+
+	@Override
+	public String toString() {
+
+		return "LAHC";
+	}
+}
@@ -0,0 +1,46 @@
+package com.aim.project.uzf.hyperheuristics.acceptance;
+
+import com.aim.project.uzf.interfaces.MoveAcceptanceInterface;
+
+/**
+ * Record-to-record travel: a candidate is accepted if it is within a fixed deviation of the best cost seen so far.
+ */
+public class RecordToRecordAcceptance implements MoveAcceptanceInterface {
+
+	public static final double DEFAULT_DEVIATION = 0.01;
+
+	private final double deviation;
+	private double record;
+
+	public RecordToRecordAcceptance() {
+
+		this(DEFAULT_DEVIATION);
+	}
+
+	/**
+	 * @param deviation How far above the record a candidate may be, as a share of the record.
+	 */
+	public RecordToRecordAcceptance(double deviation) {
+
+		this.deviation = deviation;
+	}
+
+	@Override
+	public void initialise(double initialCost) {
+
+		record = initialCost;
+	}
+
+	@Override
+	public boolean accept(double currentCost, double candidateCost, double progress) {
+
+		record = Math.min(record, candidateCost);
+		return candidateCost <= currentCost || candidateCost <= record * (1 + deviation);
+	}
+
+	@Override
+	public String toString() {
+
+		return "RRT";
+	}
+}
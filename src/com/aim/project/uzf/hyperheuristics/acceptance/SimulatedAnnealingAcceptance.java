@@ -0,0 +1,64 @@
+package com.aim.project.uzf.hyperheuristics.acceptance;
+
+import java.util.Random;
+
+import com.aim.project.uzf.interfaces.MoveAcceptanceInterface;
+
+/**
+ * Simulated annealing with cooling by elapsed time rather than by iterations, so the schedule spans the whole time
+ * limit however fast the heuristics are. A worse candidate is accepted with probability {@code exp(-delta / T)}, where
+ * the temperature falls geometrically from a share of the initial cost to a thousandth of that.
+ */
+public class SimulatedAnnealingAcceptance implements MoveAcceptanceInterface {
+
+	public static final double DEFAULT_INITIAL_TEMPERATURE_FRACTION = 0.01;
+	public static final double FINAL_TEMPERATURE_RATIO = 1e-3;
+
+	private final Random random;
+	private final double initialTemperatureFraction;
+	private double initialTemperature;
+
+	public SimulatedAnnealingAcceptance(Random random) {
+
+		this(random, DEFAULT_INITIAL_TEMPERATURE_FRACTION);
+	}
+
+	/**
+	 * @param random The random number generator deciding on worse candidates.
+	 * @param initialTemperatureFraction The initial temperature as a share of the initial cost.
+	 */
+	public SimulatedAnnealingAcceptance(Random random, double initialTemperatureFraction) {
+
+		this.random = random;
+		this.initialTemperatureFraction = initialTemperatureFraction;
+	}
+
+	@Override
+	public void initialise(double initialCost) {
+
+		initialTemperature = initialTemperatureFraction * initialCost;
+	}
+
+	@Override
+	public boolean accept(double currentCost, double candidateCost, double progress) {
+
+		if (candidateCost <= currentCost) {
+			return true;
+		}
+
+		double temperature = getTemperature(progress);
+		return temperature > 0 && random.nextDouble() < Math.exp((currentCost - candidateCost) / temperature);
+	}
+
+	// Gets the temperature once the given share of the time limit has elapsed
+	public double getTemperature(double progress) {
+
+		return initialTemperature * Math.pow(FINAL_TEMPERATURE_RATIO, Math.min(1, progress));
+	}
+
+	@Override
+	public String toString() {
+
+		return "SA";
+	}
+}
@@ -0,0 +1,57 @@
+package com.aim.project.uzf.hyperheuristics.selection;
+
+import java.util.Random;
+
+import com.aim.project.uzf.hyperheuristics.SlidingWindowBandit;
+import com.aim.project.uzf.interfaces.HeuristicSelectionInterface;
+
+/**
+ * Chooses heuristics with a {@link SlidingWindowBandit}, rewarding the improvement per nanosecond of each call
+ * (worsening calls are rewarded with 0).
+ */
+public class BanditSelection implements HeuristicSelectionInterface {
+
+	private final SlidingWindowBandit.Policy policy;
+	private final int windowSize;
+	private final double exploration;
+	private final Random random;
+	private SlidingWindowBandit bandit;
+
+	/**
+	 * @param policy How the bandit scores the heuristics.
+	 * @param windowSize The number of most recent heuristic calls the bandit learns from.
+	 * @param exploration The constant of the UCB exploration term.
+	 * @param random The random number generator used for Thompson sampling.
+	 */
+	public BanditSelection(SlidingWindowBandit.Policy policy, int windowSize, double exploration, Random random) {
+
+		this.policy = policy;
+		this.windowSize = windowSize;
+		this.exploration = exploration;
+		this.random = random;
+	}
+
+	@Override
+	public void initialise(int numberOfHeuristics) {
+
+		bandit = new SlidingWindowBandit(policy, numberOfHeuristics, windowSize, exploration, random);
+	}
+
+	@Override
+	public int select() {
+
+		return bandit.select();
+	}
+
+	@Override
+	public void update(int heuristic, double improvement, long runtime) {
+
+		bandit.update(heuristic, Math.max(0, improvement) / Math.max(1, runtime));
+	}
+
+	@Override
+	public String toString() {
+
+		return policy == SlidingWindowBandit.Policy.UCB ? "SW_UCB" : "SW_TS";
+	}
+}
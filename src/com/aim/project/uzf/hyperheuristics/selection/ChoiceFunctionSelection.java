@@ -0,0 +1,62 @@
+package com.aim.project.uzf.hyperheuristics.selection;
+
+import com.aim.project.uzf.hyperheuristics.ChoiceFunction;
+import com.aim.project.uzf.interfaces.HeuristicSelectionInterface;
+
+/**
+ * Calls every heuristic once, then chooses the heuristic with the largest {@link ChoiceFunction} score.
+ */
+public class ChoiceFunctionSelection implements HeuristicSelectionInterface {
+
+	public static final double DEFAULT_PHI = 0.5;
+
+	private final double alpha;
+	private final double beta;
+	private final double gamma;
+	private ChoiceFunction choiceFunction;
+	private int calls;
+
+	/**
+	 * @param alpha The weight of the improvement per nanosecond of each heuristic.
+	 * @param beta The weight of the improvement per nanosecond of each pair of consecutive heuristics.
+	 * @param gamma The weight of the time since a heuristic was last called.
+	 */
+	public ChoiceFunctionSelection(double alpha, double beta, double gamma) {
+
+		this.alpha = alpha;
+		this.beta = beta;
+		this.gamma = gamma;
+	}
+
+	@Override
+	public void initialise(int numberOfHeuristics) {
+
+		choiceFunction = new ChoiceFunction(numberOfHeuristics, alpha, beta, gamma, DEFAULT_PHI, System.nanoTime());
+		calls = 0;
+	}
+
+	@Override
+	public int select() {
+
+		return calls < choiceFunction.getNumberOfHeuristics() ? calls : choiceFunction.select(System.nanoTime());
+	}
+
+	@Override
+	public void update(int heuristic, double improvement, long runtime) {
+
+		choiceFunction.update(heuristic, improvement, runtime, System.nanoTime());
+		calls++;
+	}
+
+	// Gets the scores behind the selection
+	public ChoiceFunction getChoiceFunction() {
+
+		return choiceFunction;
+	}
+
+	@Override
+	public String toString() {
+
+		return "CF";
+	}
+}
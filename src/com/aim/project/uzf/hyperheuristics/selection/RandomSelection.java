@@ -0,0 +1,41 @@
+package com.aim.project.uzf.hyperheuristics.selection;
+
+import java.util.Random;
+
+import com.aim.project.uzf.interfaces.HeuristicSelectionInterface;
+
+/**
+ * Chooses every heuristic with equal probability, ignoring their outcomes.
+ */
+public class RandomSelection implements HeuristicSelectionInterface {
+
+	private final Random random;
+	private int numberOfHeuristics;
+
+	public RandomSelection(Random random) {
+
+		this.random = random;
+	}
+
+	@Override
+	public void initialise(int numberOfHeuristics) {
+
+		this.numberOfHeuristics = numberOfHeuristics;
+	}
+
+	@Override
+	public int select() {
+
+		return random.nextInt(numberOfHeuristics);
+	}
+
+	@Override
+	public void update(int heuristic, double improvement, long runtime) {
+	}
+
+	@Override
+	public String toString() {
+
+		return "SR";
+	}
+}
@@ -0,0 +1,103 @@
+package com.aim.project.uzf.instance;
+
+/**
+ * Integer distance arithmetic on the interleaved enclosure coordinates ({@code x0, y0, x1, y1, ...}).
+ * <br>
+ * Squared distances are exact {@code long} values and order enclosures the same way as their Euclidean distances,
+ * so ranking and nearest-enclosure searches compare them directly and never take a square root. Only where a cost
+ * is needed is it rounded up with {@link #ceilSqrt(long)}, which gives exactly the value of
+ * {@link com.aim.project.uzf.UZFObjectiveFunction#getCost(int, int)}.
+ */
+public final class DistanceKernel {
+
+	// Below this squared distance the floating point square root is close enough to correct to an exact result
+	private static final long EXACT_LIMIT = 1L << 52;
+
+	private DistanceKernel() {
+	}
+
+	/**
+	 * @return The squared distance between enclosures a and b.
+	 */
+	public static long squaredDistance(int[] coordinates, int a, int b) {
+
+		return squaredLength(coordinates[2 * a] - coordinates[2 * b], coordinates[2 * a + 1] - coordinates[2 * b + 1]);
+	}
+
+	/**
+	 * @return The squared distance between enclosure a and the point (x, y).
+	 */
+	public static long squaredDistance(int[] coordinates, int a, int x, int y) {
+
+		return squaredLength(coordinates[2 * a] - x, coordinates[2 * a + 1] - y);
+	}
+
+	/**
+	 * @return The squared length of the vector (dx, dy).
+	 */
+	public static long squaredLength(int dx, int dy) {
+
+		return (long) dx * dx + (long) dy * dy;
+	}
+
+	/**
+	 * @return The cost of travelling between enclosures a and b, as the objective function calculates it.
+	 */
+	public static int getCost(int[] coordinates, int a, int b) {
+
+		return ceilLength(coordinates[2 * a] - coordinates[2 * b], coordinates[2 * a + 1] - coordinates[2 * b + 1]);
+	}
+
+	/**
+	 * @return The length of the vector (dx, dy) rounded up, as the objective function calculates it.
+	 */
+	public static int ceilLength(int dx, int dy) {
+
+		long squaredLength = squaredLength(dx, dy);
+		if (squaredLength < EXACT_LIMIT) {
+			return ceilSqrt(squaredLength);
+		}
+
+		// Far apart points: reproduce the rounding of the floating point sum of squares as well
+		double ddx = dx;
+		double ddy = dy;
+		return (int) Math.ceil(Math.sqrt((ddx * ddx) + (ddy * ddy)));
+	}
+
+	/**
+	 * Rounds the distance up to a whole number without floating point error: the square root estimate is corrected
+	 * to the exact integer square root using integer arithmetic only. From 2<sup>52</sup> on the floating point
+	 * result is returned unchanged, since that is what the objective function calculates there.
+	 *
+	 * @param squaredDistance The squared distance between two points.
+	 * @return The distance rounded up, i.e. {@code (int) Math.ceil(Math.sqrt(squaredDistance))}.
+	 */
+	public static int ceilSqrt(long squaredDistance) {
+
+		if (squaredDistance >= EXACT_LIMIT) {
+			return (int) Math.ceil(Math.sqrt((double) squaredDistance));
+		}
+
+		long root = (long) Math.sqrt((double) squaredDistance);
+		while (root * root > squaredDistance) {
+			root--;
+		}
+		while ((root + 1) * (root + 1) <= squaredDistance) {
+			root++;
+		}
+
+		return (int) (root * root == squaredDistance ? root : root + 1);
+	}
+
+	/**
+	 * Turns a strict comparison of rounded up costs into one of squared distances: a point is cheaper to reach
+	 * than <code>cost</code> exactly when its squared distance is at most the returned value.
+	 *
+	 * @param cost A rounded up distance.
+	 * @return The largest squared distance whose rounded up distance is below <code>cost</code>, or -1 if none is.
+	 */
+	public static long maxSquaredDistanceBelow(int cost) {
+
+		return cost <= 0 ? -1 : (long) (cost - 1) * (cost - 1);
+	}
+}
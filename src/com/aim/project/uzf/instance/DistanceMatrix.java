@@ -0,0 +1,68 @@
+package com.aim.project.uzf.instance;
+
+import java.nio.IntBuffer;
+
+import com.aim.project.uzf.interfaces.DistanceStoreInterface;
+import com.aim.project.uzf.interfaces.ObjectiveFunctionInterface;
+
+/**
+ * Precomputed distances between every pair of enclosures, stored row-major in a flat buffer.
+ * The buffer is either a heap array or a memory-mapped section of a binary instance file.
+ */
+public class DistanceMatrix implements DistanceStoreInterface {
+
+	// Largest instance whose full matrix still fits into a single buffer
+	public static final int MAX_NUMBER_OF_ENCLOSURES = (int) Math.sqrt(Integer.MAX_VALUE / Integer.BYTES);
+
+	private final int numberOfEnclosures;
+	private final IntBuffer distances;
+
+	public DistanceMatrix(int numberOfEnclosures, IntBuffer distances) {
+
+		this.numberOfEnclosures = numberOfEnclosures;
+		this.distances = distances;
+	}
+
+	// Gets the number of enclosures (rows) in the matrix
+	@Override
+	public int getNumberOfEnclosures() {
+
+		return numberOfEnclosures;
+	}
+
+	// Gets the distance between enclosures iLocationA and iLocationB
+	@Override
+	public int getCost(int iLocationA, int iLocationB) {
+
+		return distances.get(iLocationA * numberOfEnclosures + iLocationB);
+	}
+
+	// Gets a read-only view of the flat distance buffer
+	public IntBuffer getBuffer() {
+
+		return distances.asReadOnlyBuffer();
+	}
+
+	/**
+	 * @param oObjectiveFunction The objective function used to calculate each pairwise cost.
+	 * @param numberOfEnclosures The number of enclosures in the instance.
+	 * @return A heap-backed matrix holding every pairwise cost.
+	 */
+	public static DistanceMatrix compute(ObjectiveFunctionInterface oObjectiveFunction, int numberOfEnclosures) {
+
+		if (numberOfEnclosures > MAX_NUMBER_OF_ENCLOSURES) {
+			throw new IllegalArgumentException("Too many enclosures for a full distance matrix: " + numberOfEnclosures);
+		}
+
+		int[] distances = new int[numberOfEnclosures * numberOfEnclosures];
+		for (int a = 0; a < numberOfEnclosures; a++) {
+			for (int b = a + 1; b < numberOfEnclosures; b++) {
+				int cost = oObjectiveFunction.getCost(a, b);
+				distances[a * numberOfEnclosures + b] = cost;
+				distances[b * numberOfEnclosures + a] = cost;
+			}
+		}
+
+		return new DistanceMatrix(numberOfEnclosures, IntBuffer.wrap(distances));
+	}
+}
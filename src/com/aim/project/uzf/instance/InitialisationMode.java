@@ -6,5 +6,17 @@ package com.aim.project.uzf.instance;
  */
 public enum InitialisationMode {
 
-	RANDOM, CONSTRUCTIVE
+	RANDOM,
+
+	// O(n^2) nearest neighbour greedy construction
+	CONSTRUCTIVE,
+
+	// Hilbert space-filling curve order
+	HILBERT,
+
+	// Greedy edge matching over the k-nearest neighbour candidate edges
+	GREEDY_EDGE,
+
+	// Depth-first preorder of a minimum spanning tree over the k-nearest neighbour graph
+	SPANNING_TREE
 }
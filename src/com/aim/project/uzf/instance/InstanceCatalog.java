@@ -0,0 +1,171 @@
+package com.aim.project.uzf.instance;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import com.aim.project.uzf.instance.reader.UAVInstanceReader;
+import com.aim.project.uzf.interfaces.UZFInstanceInterface;
+
+/**
+ * Discovers the instance files ({@code .uzf} and {@code .uzfb}) in a directory and assigns them instance IDs.
+ * <br>
+ * Parsed instances are kept, together with their neighbour lists, in a small LRU cache of soft references so that
+ * loading the same instance again in this JVM skips parsing; the garbage collector may still reclaim them under
+ * memory pressure. The bundled instances keep their historical IDs 0-6, any other files follow in name order.
+ * Setting {@value #RENUMBER_PROPERTY} renumbers the enclosures of every instance along a Hilbert curve on loading.
+ */
+public class InstanceCatalog {
+
+	public static final String DIRECTORY_PROPERTY = "uzf.instances.dir";
+	public static final String CACHE_SIZE_PROPERTY = "uzf.instances.cacheSize";
+	public static final String RENUMBER_PROPERTY = "uzf.instances.renumber";
+
+	public static final String DEFAULT_DIRECTORY = "instances/uzf";
+	public static final int DEFAULT_CACHE_SIZE = 8;
+
+	private static final List<String> BUNDLED_INSTANCES = Arrays.asList("square", "libraries-15", "carparks-40",
+			"tramstops-85", "grid", "clustered-enclosures", "chatgpt-instance-100-enclosures");
+
+	private static InstanceCatalog defaultCatalog;
+
+	private final List<Path> paths;
+	private final Map<Path, SoftReference<UZFInstance>> cache;
+	private final boolean renumberEnclosures;
+
+	public InstanceCatalog(Path directory, int cacheSize) {
+
+		this(directory, cacheSize, false);
+	}
+
+	public InstanceCatalog(Path directory, int cacheSize, boolean renumberEnclosures) {
+
+		this.renumberEnclosures = renumberEnclosures;
+		this.paths = discover(directory);
+		this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Path, SoftReference<UZFInstance>> eldest) {
+				return size() > cacheSize;
+			}
+		};
+	}
+
+	/**
+	 * @return The catalog shared by every domain in this JVM, configured by the {@value #DIRECTORY_PROPERTY},
+	 * {@value #CACHE_SIZE_PROPERTY} and {@value #RENUMBER_PROPERTY} system properties.
+	 */
+	public static synchronized InstanceCatalog getDefault() {
+
+		if (defaultCatalog == null) {
+			defaultCatalog = new InstanceCatalog(Path.of(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY)),
+					Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE), Boolean.getBoolean(RENUMBER_PROPERTY));
+		}
+
+		return defaultCatalog;
+	}
+
+	// Gets the number of instances found in the directory
+	public int getNumberOfInstances() {
+
+		return paths.size();
+	}
+
+	// Gets the file the instance ID refers to
+	public Path getPath(int instanceId) {
+
+		if (instanceId < 0 || instanceId >= paths.size()) {
+			throw new IllegalArgumentException("UZF Domain does not support instance id " + instanceId);
+		}
+
+		return paths.get(instanceId);
+	}
+
+	/**
+	 * @param instanceId The ID of the instance to load.
+	 * @param random The random number generator the returned instance should use.
+	 * @return The instance, parsed on first use and served from the cache afterwards.
+	 */
+	public synchronized UZFInstanceInterface getInstance(int instanceId, Random random) {
+
+		Path path = getPath(instanceId);
+
+		SoftReference<UZFInstance> reference = cache.get(path);
+		UZFInstance instance = reference == null ? null : reference.get();
+		if (instance == null) {
+			instance = (UZFInstance) new UAVInstanceReader(renumberEnclosures).readUZFInstance(path, random);
+			if (instance == null) {
+				throw new IllegalStateException("Could not read instance " + path);
+			}
+			// Build the derived structures once so that every later load shares them
+			instance.getNeighbourLists();
+			instance.getUZFObjectiveFunction();
+			cache.put(path, new SoftReference<>(instance));
+		}
+
+		return instance.withRandom(random);
+	}
+
+	// Helper method to list the instance files, preferring the binary file when both forms exist and it is up to date
+	private static List<Path> discover(Path directory) {
+
+		List<Path> found = new ArrayList<>();
+		if (!Files.isDirectory(directory)) {
+			return found;
+		}
+
+		try (Stream<Path> files = Files.list(directory)) {
+			files.filter(path -> path.toString().endsWith(".uzf")
+							|| path.toString().endsWith(UZFBinaryFormat.FILE_EXTENSION))
+					.sorted(Comparator.comparing(Path::toString))
+					.forEach(path -> {
+						String name = baseName(path);
+						found.removeIf(other -> baseName(other).equals(name));
+						found.add(preferredVersionOf(path));
+					});
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		// Bundled instances first, in their historical order
+		found.sort(Comparator.comparingInt((Path path) -> {
+			int bundled = BUNDLED_INSTANCES.indexOf(baseName(path));
+			return bundled < 0 ? BUNDLED_INSTANCES.size() : bundled;
+		}).thenComparing(InstanceCatalog::baseName));
+
+		return found;
+	}
+
+	// Helper method to prefer the binary form of an instance, unless the text form next to it was modified since
+	private static Path preferredVersionOf(Path path) {
+
+		Path text = path.resolveSibling(baseName(path) + ".uzf");
+		Path binary = path.resolveSibling(baseName(path) + UZFBinaryFormat.FILE_EXTENSION);
+		if (!Files.exists(binary) || !Files.exists(text)) {
+			return path;
+		}
+
+		try {
+			return Files.getLastModifiedTime(binary).compareTo(Files.getLastModifiedTime(text)) >= 0 ? binary : text;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return text;
+		}
+	}
+
+	// Helper method to strip the extension from an instance file name
+	private static String baseName(Path path) {
+
+		String name = path.getFileName().toString();
+		return name.substring(0, name.lastIndexOf('.'));
+	}
+}
@@ -0,0 +1,9 @@
+package com.aim.project.uzf.instance;
+
+/**
+ * Spatial layouts that {@link UZFInstanceGenerator} can produce.
+ */
+public enum InstanceLayout {
+
+	UNIFORM, CLUSTERED, GRID, ROAD
+}
@@ -0,0 +1,168 @@
+package com.aim.project.uzf.instance;
+
+import java.nio.IntBuffer;
+
+/**
+ * Fixed-length k-nearest neighbour lists for every enclosure of an instance.
+ * The lists are stored in one flat buffer (closest neighbour first) so that they can be
+ * backed either by a heap array or by a memory-mapped section of a binary instance file.
+ */
+public class NeighbourLists {
+
+	// Default number of neighbours kept per enclosure
+	public static final int DEFAULT_NUMBER_OF_NEIGHBOURS = 10;
+
+	private final int numberOfEnclosures;
+	private final int k;
+	private final IntBuffer neighbours;
+
+	public NeighbourLists(int numberOfEnclosures, int k, IntBuffer neighbours) {
+
+		this.numberOfEnclosures = numberOfEnclosures;
+		this.k = k;
+		this.neighbours = neighbours;
+	}
+
+	// Gets the number of enclosures the lists were built for
+	public int getNumberOfEnclosures() {
+
+		return numberOfEnclosures;
+	}
+
+	// Gets the number of neighbours stored per enclosure
+	public int getK() {
+
+		return k;
+	}
+
+	// Gets the neighbour of the given rank (0 = closest) for the given enclosure
+	public int getNeighbour(int iEnclosureId, int rank) {
+
+		return neighbours.get(iEnclosureId * k + rank);
+	}
+
+	// Gets a read-only view of the flat neighbour buffer
+	public IntBuffer getBuffer() {
+
+		return neighbours.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Builds the neighbour lists using a uniform grid as spatial index, so that only the cells
+	 * around each enclosure are searched rather than every other enclosure.
+	 *
+	 * @param coordinates The enclosure coordinates interleaved as {@code x0, y0, x1, y1, ...}.
+	 * @param k The number of neighbours to keep per enclosure (capped at n - 1).
+	 * @return The neighbour lists, ordered by distance and then by enclosure ID.
+	 */
+	public static NeighbourLists compute(int[] coordinates, int k) {
+
+		int n = coordinates.length / 2;
+		k = Math.max(0, Math.min(k, n - 1));
+		int[] result = new int[n * k];
+
+		if (k == 0) {
+			return new NeighbourLists(n, 0, IntBuffer.wrap(result));
+		}
+
+		// Bounding box of all enclosures
+		long minX = Long.MAX_VALUE, minY = Long.MAX_VALUE, maxX = Long.MIN_VALUE, maxY = Long.MIN_VALUE;
+		for (int i = 0; i < n; i++) {
+			minX = Math.min(minX, coordinates[2 * i]);
+			maxX = Math.max(maxX, coordinates[2 * i]);
+			minY = Math.min(minY, coordinates[2 * i + 1]);
+			maxY = Math.max(maxY, coordinates[2 * i + 1]);
+		}
+
+		// Square cells sized so that there are roughly two enclosures per cell
+		int cellsPerSide = Math.max(1, (int) Math.sqrt(n / 2.0));
+		long extent = Math.max(maxX - minX, maxY - minY) + 1;
+		long cellSize = Math.max(1, (extent + cellsPerSide - 1) / cellsPerSide);
+		int gridWidth = (int) ((maxX - minX) / cellSize) + 1;
+		int gridHeight = (int) ((maxY - minY) / cellSize) + 1;
+
+		// Counting sort of the enclosures into their cells
+		int[] cellOf = new int[n];
+		int[] cellStart = new int[gridWidth * gridHeight + 1];
+		for (int i = 0; i < n; i++) {
+			int cx = (int) ((coordinates[2 * i] - minX) / cellSize);
+			int cy = (int) ((coordinates[2 * i + 1] - minY) / cellSize);
+			cellOf[i] = cy * gridWidth + cx;
+			cellStart[cellOf[i] + 1]++;
+		}
+		for (int c = 0; c < gridWidth * gridHeight; c++) {
+			cellStart[c + 1] += cellStart[c];
+		}
+		int[] cellEnclosures = new int[n];
+		int[] fill = new int[gridWidth * gridHeight];
+		for (int i = 0; i < n; i++) {
+			cellEnclosures[cellStart[cellOf[i]] + fill[cellOf[i]]++] = i;
+		}
+
+		long[] bestDistance = new long[k];
+		int[] bestId = new int[k];
+
+		for (int i = 0; i < n; i++) {
+			int cx = cellOf[i] % gridWidth;
+			int cy = cellOf[i] / gridWidth;
+			int found = 0;
+
+			// Search rings of cells around the home cell until no closer enclosure can exist
+			for (int r = 0; r <= Math.max(gridWidth, gridHeight); r++) {
+				for (int y = cy - r; y <= cy + r; y++) {
+					if (y < 0 || y >= gridHeight) {
+						continue;
+					}
+					// Inner rows only contribute their two border cells
+					int step = (y == cy - r || y == cy + r) ? 1 : Math.max(1, 2 * r);
+					for (int x = cx - r; x <= cx + r; x += step) {
+						if (x < 0 || x >= gridWidth) {
+							continue;
+						}
+						int cell = y * gridWidth + x;
+						for (int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+							int j = cellEnclosures[p];
+							if (j == i) {
+								continue;
+							}
+							long distance = DistanceKernel.squaredDistance(coordinates, i, j);
+							found = insert(bestDistance, bestId, found, distance, j);
+						}
+					}
+				}
+
+				// Any enclosure outside ring r is more than r cells away
+				long reach = r * cellSize;
+				if (found == k && bestDistance[k - 1] <= reach * reach) {
+					break;
+				}
+			}
+
+			System.arraycopy(bestId, 0, result, i * k, k);
+		}
+
+		return new NeighbourLists(n, k, IntBuffer.wrap(result));
+	}
+
+	// Helper method to insert a candidate into the bounded, sorted neighbour list
+	private static int insert(long[] bestDistance, int[] bestId, int found, long distance, int id) {
+
+		int k = bestId.length;
+		if (found == k && (distance > bestDistance[k - 1]
+				|| (distance == bestDistance[k - 1] && id > bestId[k - 1]))) {
+			return found;
+		}
+
+		int position = Math.min(found, k - 1);
+		while (position > 0 && (distance < bestDistance[position - 1]
+				|| (distance == bestDistance[position - 1] && id < bestId[position - 1]))) {
+			bestDistance[position] = bestDistance[position - 1];
+			bestId[position] = bestId[position - 1];
+			position--;
+		}
+		bestDistance[position] = distance;
+		bestId[position] = id;
+
+		return Math.min(found + 1, k);
+	}
+}
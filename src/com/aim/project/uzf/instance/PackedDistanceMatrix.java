@@ -0,0 +1,316 @@
+package com.aim.project.uzf.instance;
+
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import com.aim.project.uzf.interfaces.DistanceStoreInterface;
+
+/**
+ * Off-heap distances between every pair of enclosures. Only the upper triangle is kept, and each distance uses the
+ * narrowest element type that holds the largest distance of the instance, so the store needs
+ * {@code n(n - 1) / 2} elements of two bytes for most instances instead of {@code n * n} ints on the heap.
+ * <br>
+ * The triangle is split over direct buffers of at most {@value #CHUNK_BYTES} bytes, or over mapped sections of a
+ * {@value #FILE_EXTENSION} file, in which case every JVM solving the same instance shares one copy through the page
+ * cache.
+ */
+public class PackedDistanceMatrix implements DistanceStoreInterface {
+
+	public static final String FILE_EXTENSION = ".uzfd";
+
+	// "UZFD" when read as little-endian bytes
+	public static final int MAGIC = 0x44465A55;
+	public static final int VERSION = 2;
+
+	// magic, version, n, element type, coordinate fingerprint (long), reserved
+	public static final int HEADER_BYTES = 32;
+
+	private static final int CHUNK_SHIFT = 30;
+	public static final long CHUNK_BYTES = 1L << CHUNK_SHIFT;
+
+	private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+	// Bytes of direct buffers held by stores that have not been reclaimed yet, released by the cleaner
+	private static final AtomicLong liveDirectBytes = new AtomicLong();
+	private static final Cleaner CLEANER = Cleaner.create();
+
+	/**
+	 * Element types a distance can be stored as, from narrowest to widest.
+	 */
+	public enum ElementType {
+
+		CHAR(1, Character.MAX_VALUE),
+		INT(2, Integer.MAX_VALUE);
+
+		// log2 of the element size in bytes
+		private final int shift;
+		private final int maxValue;
+
+		ElementType(int shift, int maxValue) {
+
+			this.shift = shift;
+			this.maxValue = maxValue;
+		}
+
+		// Gets the size of one element in bytes
+		public int getBytes() {
+
+			return 1 << shift;
+		}
+
+		// Gets the narrowest element type able to hold the given distance
+		public static ElementType narrowestFor(long maxDistance) {
+
+			for (ElementType type : values()) {
+				if (maxDistance <= type.maxValue) {
+					return type;
+				}
+			}
+			throw new IllegalArgumentException("Distance does not fit into an int: " + maxDistance);
+		}
+	}
+
+	private final int numberOfEnclosures;
+	private final ElementType elementType;
+	private final ByteBuffer[] chunks;
+
+	private PackedDistanceMatrix(int numberOfEnclosures, ElementType elementType, ByteBuffer[] chunks) {
+
+		this.numberOfEnclosures = numberOfEnclosures;
+		this.elementType = elementType;
+		this.chunks = chunks;
+	}
+
+	// Gets the number of enclosures the store holds distances for
+	@Override
+	public int getNumberOfEnclosures() {
+
+		return numberOfEnclosures;
+	}
+
+	// Gets the element type the distances are stored as
+	public ElementType getElementType() {
+
+		return elementType;
+	}
+
+	// Gets the distance between enclosures iLocationA and iLocationB
+	@Override
+	public int getCost(int iLocationA, int iLocationB) {
+
+		if (iLocationA == iLocationB) {
+			return 0;
+		}
+
+		int a = Math.min(iLocationA, iLocationB);
+		int b = Math.max(iLocationA, iLocationB);
+		long byteIndex = getIndex(a, b, numberOfEnclosures) << elementType.shift;
+		ByteBuffer chunk = chunks[(int) (byteIndex >>> CHUNK_SHIFT)];
+		int offset = (int) (byteIndex & (CHUNK_BYTES - 1));
+
+		return switch (elementType) {
+			case CHAR -> chunk.getChar(offset);
+			case INT -> chunk.getInt(offset);
+		};
+	}
+
+	/**
+	 * @param numberOfEnclosures The number of enclosures in the instance.
+	 * @param elementType The element type the distances would be stored as.
+	 * @return The number of bytes the upper triangle takes up.
+	 */
+	public static long getRequiredBytes(int numberOfEnclosures, ElementType elementType) {
+
+		return ((long) numberOfEnclosures * (numberOfEnclosures - 1) / 2) << elementType.shift;
+	}
+
+	/**
+	 * @param coordinates The enclosure coordinates interleaved as {@code x0, y0, x1, y1, ...}.
+	 * @return The narrowest element type that holds the distance across the bounding box of the enclosures.
+	 */
+	public static ElementType elementTypeFor(int[] coordinates) {
+
+		if (coordinates.length == 0) {
+			return ElementType.CHAR;
+		}
+
+		long minX = Long.MAX_VALUE, minY = Long.MAX_VALUE, maxX = Long.MIN_VALUE, maxY = Long.MIN_VALUE;
+		for (int i = 0; i < coordinates.length; i += 2) {
+			minX = Math.min(minX, coordinates[i]);
+			maxX = Math.max(maxX, coordinates[i]);
+			minY = Math.min(minY, coordinates[i + 1]);
+			maxY = Math.max(maxY, coordinates[i + 1]);
+		}
+
+		double width = maxX - minX;
+		double height = maxY - minY;
+		return ElementType.narrowestFor((long) Math.ceil(Math.sqrt((width * width) + (height * height))));
+	}
+
+	/**
+	 * Calculates the store in direct buffers owned by this JVM.
+	 *
+	 * @param coordinates The enclosure coordinates interleaved as {@code x0, y0, x1, y1, ...}.
+	 * @return The filled store.
+	 */
+	public static PackedDistanceMatrix compute(int[] coordinates) {
+
+		int numberOfEnclosures = coordinates.length / 2;
+		ElementType elementType = elementTypeFor(coordinates);
+		long bytes = getRequiredBytes(numberOfEnclosures, elementType);
+
+		ByteBuffer[] chunks = new ByteBuffer[numberOfChunks(bytes)];
+		for (int c = 0; c < chunks.length; c++) {
+			chunks[c] = ByteBuffer.allocateDirect((int) chunkSize(bytes, c)).order(BYTE_ORDER);
+		}
+
+		PackedDistanceMatrix store = new PackedDistanceMatrix(numberOfEnclosures, elementType, chunks);
+		store.fill(coordinates);
+
+		liveDirectBytes.addAndGet(bytes);
+		CLEANER.register(store, () -> liveDirectBytes.addAndGet(-bytes));
+
+		return store;
+	}
+
+	/**
+	 * @return The bytes of direct buffers held by stores calculated with {@link #compute(int[])} that have not been
+	 * garbage collected yet; stores mapped from files are not counted.
+	 */
+	public static long getLiveDirectBytes() {
+
+		return liveDirectBytes.get();
+	}
+
+	/**
+	 * Maps the store from a file, calculating and writing the file first if it does not exist yet or was written for
+	 * different coordinates. The file is written under a temporary name and moved into place once complete, so other
+	 * JVMs never map a partly written store.
+	 *
+	 * @param coordinates The enclosure coordinates interleaved as {@code x0, y0, x1, y1, ...}.
+	 * @param path The file backing the store.
+	 * @return The mapped store.
+	 */
+	public static PackedDistanceMatrix computeShared(int[] coordinates, Path path) throws IOException {
+
+		int numberOfEnclosures = coordinates.length / 2;
+		ElementType elementType = elementTypeFor(coordinates);
+		long fingerprint = fingerprint(coordinates);
+		long bytes = getRequiredBytes(numberOfEnclosures, elementType);
+
+		// Reuse the file written by an earlier run or another JVM
+		if (Files.exists(path)) {
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				if (channel.size() == HEADER_BYTES + bytes) {
+					ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(BYTE_ORDER);
+					if (header.getInt(0) == MAGIC && header.getInt(4) == VERSION
+							&& header.getInt(8) == numberOfEnclosures && header.getInt(12) == elementType.ordinal()
+							&& header.getLong(16) == fingerprint) {
+						return new PackedDistanceMatrix(numberOfEnclosures, elementType,
+								map(channel, FileChannel.MapMode.READ_ONLY, bytes));
+					}
+				}
+			}
+		}
+
+		Path temporary = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+			header.order(BYTE_ORDER);
+			PackedDistanceMatrix store = new PackedDistanceMatrix(numberOfEnclosures, elementType,
+					map(channel, FileChannel.MapMode.READ_WRITE, bytes));
+			store.fill(coordinates);
+			for (ByteBuffer chunk : store.chunks) {
+				((MappedByteBuffer) chunk).force();
+			}
+
+			// The header is written last so that a complete header implies complete distances
+			header.putInt(0, MAGIC);
+			header.putInt(4, VERSION);
+			header.putInt(8, numberOfEnclosures);
+			header.putInt(12, elementType.ordinal());
+			header.putLong(16, fingerprint);
+			header.force();
+
+			Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return store;
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * @param coordinates The enclosure coordinates interleaved as {@code x0, y0, x1, y1, ...}.
+	 * @return A 64-bit fingerprint of the coordinates, used to name and validate shared store files.
+	 */
+	public static long fingerprint(int[] coordinates) {
+
+		long hash = 0xCBF29CE484222325L ^ coordinates.length;
+		for (int value : coordinates) {
+			hash = (hash ^ value) * 0x100000001B3L;
+			hash ^= hash >>> 29;
+		}
+
+		return hash;
+	}
+
+	// Helper method to fill the upper triangle row by row, rows being independent of each other
+	private void fill(int[] coordinates) {
+
+		IntStream.range(0, numberOfEnclosures).parallel().forEach(a -> {
+			long byteIndex = getIndex(a, a + 1, numberOfEnclosures) << elementType.shift;
+			for (int b = a + 1; b < numberOfEnclosures; b++, byteIndex += elementType.getBytes()) {
+				double dx = coordinates[2 * a] - coordinates[2 * b];
+				double dy = coordinates[2 * a + 1] - coordinates[2 * b + 1];
+				int cost = (int) Math.ceil(Math.sqrt((dx * dx) + (dy * dy)));
+
+				ByteBuffer chunk = chunks[(int) (byteIndex >>> CHUNK_SHIFT)];
+				int offset = (int) (byteIndex & (CHUNK_BYTES - 1));
+				switch (elementType) {
+					case CHAR -> chunk.putChar(offset, (char) cost);
+					case INT -> chunk.putInt(offset, cost);
+				}
+			}
+		});
+	}
+
+	// Helper method to get the position of (a, b), a < b, in the row-major upper triangle
+	private static long getIndex(int a, int b, int numberOfEnclosures) {
+
+		return (long) a * numberOfEnclosures - (long) a * (a + 1) / 2 + (b - a - 1);
+	}
+
+	// Helper method to map the triangle following the header of a store file, one mapping per chunk
+	private static ByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long bytes) throws IOException {
+
+		ByteBuffer[] chunks = new ByteBuffer[numberOfChunks(bytes)];
+		for (int c = 0; c < chunks.length; c++) {
+			chunks[c] = channel.map(mode, HEADER_BYTES + c * CHUNK_BYTES, chunkSize(bytes, c)).order(BYTE_ORDER);
+		}
+
+		return chunks;
+	}
+
+	// Helper method to get the number of chunks needed for the given number of bytes
+	private static int numberOfChunks(long bytes) {
+
+		return (int) ((bytes + CHUNK_BYTES - 1) >>> CHUNK_SHIFT);
+	}
+
+	// Helper method to get the size of chunk c
+	private static long chunkSize(long bytes, int c) {
+
+		return Math.min(CHUNK_BYTES, bytes - c * CHUNK_BYTES);
+	}
+}
@@ -0,0 +1,364 @@
+package com.aim.project.uzf.instance;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.aim.project.uzf.interfaces.ObjectiveFunctionInterface;
+
+/**
+ * Fast tour construction methods used by {@link UZFInstance#createSolution(InitialisationMode)}.
+ * <br>
+ * All methods run in O(n log n) time (for a fixed number of neighbours per enclosure), as opposed to the
+ * O(n^2) nearest neighbour construction. Coordinates are passed interleaved as {@code x0, y0, x1, y1, ...}.
+ */
+public final class TourConstruction {
+
+	private TourConstruction() {
+	}
+
+	/**
+	 * Orders the enclosures along a Hilbert space-filling curve.
+	 *
+	 * @param coordinates The interleaved enclosure coordinates.
+	 * @param symmetry One of the eight symmetries of the square (0-7) to apply before ordering; 0 is the identity.
+	 * @return The enclosure IDs in curve order.
+	 */
+	public static int[] hilbertOrder(int[] coordinates, int symmetry) {
+
+		int n = coordinates.length / 2;
+		int[] order = new int[n];
+		if (n == 0) {
+			return order;
+		}
+
+		// Pack the curve position and the enclosure ID into one key so that a primitive sort suffices
+		int indexBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(n - 1));
+		int curveOrder = Math.min(31, (63 - indexBits) / 2);
+		long side = 1L << curveOrder;
+
+		long minX = Long.MAX_VALUE, minY = Long.MAX_VALUE, maxX = Long.MIN_VALUE, maxY = Long.MIN_VALUE;
+		for (int i = 0; i < n; i++) {
+			minX = Math.min(minX, coordinates[2 * i]);
+			maxX = Math.max(maxX, coordinates[2 * i]);
+			minY = Math.min(minY, coordinates[2 * i + 1]);
+			maxY = Math.max(maxY, coordinates[2 * i + 1]);
+		}
+		double scale = (side - 1) / (double) Math.max(1, Math.max(maxX - minX, maxY - minY));
+
+		long[] keys = new long[n];
+		for (int i = 0; i < n; i++) {
+			long x = (long) ((coordinates[2 * i] - minX) * scale);
+			long y = (long) ((coordinates[2 * i + 1] - minY) * scale);
+			if ((symmetry & 1) != 0) {
+				long temp = x;
+				x = y;
+				y = temp;
+			}
+			if ((symmetry & 2) != 0) {
+				x = side - 1 - x;
+			}
+			if ((symmetry & 4) != 0) {
+				y = side - 1 - y;
+			}
+			keys[i] = (hilbertIndex(x, y, side) << indexBits) | i;
+		}
+		Arrays.sort(keys);
+
+		long mask = (1L << indexBits) - 1;
+		for (int i = 0; i < n; i++) {
+			order[i] = (int) (keys[i] & mask);
+		}
+
+		return order;
+	}
+
+	// Helper method to map a point of a side x side square to its distance along the Hilbert curve
+	private static long hilbertIndex(long x, long y, long side) {
+
+		long d = 0;
+		for (long s = side / 2; s > 0; s /= 2) {
+			int rx = (x & s) > 0 ? 1 : 0;
+			int ry = (y & s) > 0 ? 1 : 0;
+			d += s * s * ((3 * rx) ^ ry);
+
+			// Rotate the quadrant so that the curve is continuous
+			if (ry == 0) {
+				if (rx == 1) {
+					x = side - 1 - x;
+					y = side - 1 - y;
+				}
+				long temp = x;
+				x = y;
+				y = temp;
+			}
+		}
+
+		return d;
+	}
+
+	/**
+	 * Space-filling curve construction: visits the enclosures in Hilbert curve order.
+	 */
+	public static int[] hilbert(int[] coordinates, ObjectiveFunctionInterface f, Random random) {
+
+		int[] tour = hilbertOrder(coordinates, random.nextInt(8));
+		rotateToFoodPreparationArea(tour, f);
+
+		return tour;
+	}
+
+	/**
+	 * Greedy edge construction: repeatedly adds the shortest candidate edge (from the k-nearest neighbour lists)
+	 * that neither gives an enclosure a third edge nor closes a cycle, then joins the resulting path fragments
+	 * in Hilbert curve order.
+	 */
+	public static int[] greedyEdge(int[] coordinates, NeighbourLists neighbourLists, ObjectiveFunctionInterface f,
+								   Random random) {
+
+		int n = coordinates.length / 2;
+		long[] edges = sortedCandidateEdges(coordinates, neighbourLists);
+		int k = neighbourLists.getK();
+
+		// Two adjacency slots per enclosure; -1 marks a free slot
+		int[] adjacency = new int[2 * n];
+		Arrays.fill(adjacency, -1);
+		int[] parent = newUnionFind(n);
+
+		for (long edge : edges) {
+			int a = (int) edge / k;
+			int b = neighbourLists.getNeighbour(a, (int) edge % k);
+			if (adjacency[2 * a + 1] == -1 && adjacency[2 * b + 1] == -1 && union(parent, a, b)) {
+				adjacency[adjacency[2 * a] == -1 ? 2 * a : 2 * a + 1] = b;
+				adjacency[adjacency[2 * b] == -1 ? 2 * b : 2 * b + 1] = a;
+			}
+		}
+
+		// Walk each fragment from one end, in curve order of its first endpoint reached
+		int[] curveOrder = hilbertOrder(coordinates, random.nextInt(8));
+		boolean[] visited = new boolean[n];
+		int[] tour = new int[n];
+		int length = 0;
+
+		for (int start : curveOrder) {
+			if (visited[start] || adjacency[2 * start + 1] != -1) {
+				continue;
+			}
+
+			// Walk to the other end of the fragment
+			int fragmentStart = length;
+			int previous = -1;
+			int current = start;
+			while (current != -1) {
+				visited[current] = true;
+				tour[length++] = current;
+				int next = adjacency[2 * current] != previous ? adjacency[2 * current] : adjacency[2 * current + 1];
+				previous = current;
+				current = next;
+			}
+
+			// Reverse the fragment if its far end is closer to the end of the tour so far
+			if (fragmentStart > 0) {
+				int tail = tour[fragmentStart - 1];
+				if (DistanceKernel.squaredDistance(coordinates, tail, tour[length - 1])
+						< DistanceKernel.squaredDistance(coordinates, tail, tour[fragmentStart])) {
+					reverse(tour, fragmentStart, length - 1);
+				}
+			}
+		}
+
+		rotateToFoodPreparationArea(tour, f);
+
+		return tour;
+	}
+
+	/**
+	 * Spanning tree construction (a "double tree" Christofides-lite): builds a minimum spanning forest over the
+	 * k-nearest neighbour graph and visits the enclosures in depth-first preorder, nearest child first, taking
+	 * the trees in Hilbert curve order of their roots.
+	 */
+	public static int[] spanningTree(int[] coordinates, NeighbourLists neighbourLists, ObjectiveFunctionInterface f,
+									 Random random) {
+
+		int n = coordinates.length / 2;
+		long[] edges = sortedCandidateEdges(coordinates, neighbourLists);
+		int k = neighbourLists.getK();
+
+		// Kruskal's algorithm; the tree edges come out in increasing cost
+		int[] parent = newUnionFind(n);
+		int[] treeA = new int[Math.max(0, n - 1)];
+		int[] treeB = new int[Math.max(0, n - 1)];
+		int treeEdges = 0;
+		for (long edge : edges) {
+			int a = (int) edge / k;
+			int b = neighbourLists.getNeighbour(a, (int) edge % k);
+			if (union(parent, a, b)) {
+				treeA[treeEdges] = a;
+				treeB[treeEdges] = b;
+				treeEdges++;
+				if (treeEdges == n - 1) {
+					break;
+				}
+			}
+		}
+
+		// Compressed adjacency lists, each ordered by increasing edge cost
+		int[] start = new int[n + 1];
+		for (int e = 0; e < treeEdges; e++) {
+			start[treeA[e] + 1]++;
+			start[treeB[e] + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			start[i + 1] += start[i];
+		}
+		int[] fill = Arrays.copyOf(start, n);
+		int[] adjacent = new int[2 * treeEdges];
+		for (int e = 0; e < treeEdges; e++) {
+			adjacent[fill[treeA[e]]++] = treeB[e];
+			adjacent[fill[treeB[e]]++] = treeA[e];
+		}
+
+		// Iterative preorder traversal of each tree
+		boolean[] visited = new boolean[n];
+		int[] stack = new int[Math.max(1, 2 * treeEdges + n)];
+		int[] tour = new int[n];
+		int length = 0;
+
+		for (int root : hilbertOrder(coordinates, random.nextInt(8))) {
+			if (visited[root]) {
+				continue;
+			}
+			int top = 0;
+			stack[top++] = root;
+			while (top > 0) {
+				int u = stack[--top];
+				if (visited[u]) {
+					continue;
+				}
+				visited[u] = true;
+				tour[length++] = u;
+				// Push in reverse so that the nearest child is visited first
+				for (int p = start[u + 1] - 1; p >= start[u]; p--) {
+					if (!visited[adjacent[p]]) {
+						stack[top++] = adjacent[p];
+					}
+				}
+			}
+		}
+
+		rotateToFoodPreparationArea(tour, f);
+
+		return tour;
+	}
+
+	/**
+	 * Rotates a tour, seen as a cycle, so that the food preparation area is inserted where it adds the least cost.
+	 */
+	public static void rotateToFoodPreparationArea(int[] tour, ObjectiveFunctionInterface f) {
+
+		int n = tour.length;
+		if (n < 2) {
+			return;
+		}
+
+		// Find the edge (tour[r - 1], tour[r]) that is cheapest to replace with a detour via the food preparation area
+		int best = 0;
+		long bestCost = Long.MAX_VALUE;
+		for (int r = 0; r < n; r++) {
+			int previous = tour[(r + n - 1) % n];
+			long cost = (long) f.getCostBetweenFoodPreparationAreaAnd(tour[r])
+					+ f.getCostBetweenFoodPreparationAreaAnd(previous) - f.getCost(previous, tour[r]);
+			if (cost < bestCost) {
+				bestCost = cost;
+				best = r;
+			}
+		}
+
+		// Rotate by three reversals
+		reverse(tour, 0, best - 1);
+		reverse(tour, best, n - 1);
+		reverse(tour, 0, n - 1);
+	}
+
+	// Helper method to collect every candidate edge and sort it by cost; each edge is encoded as a*k + rank
+	private static long[] sortedCandidateEdges(int[] coordinates, NeighbourLists neighbourLists) {
+
+		int n = neighbourLists.getNumberOfEnclosures();
+		int k = neighbourLists.getK();
+		long[] edges = new long[n * k];
+		int m = 0;
+
+		for (int a = 0; a < n; a++) {
+			for (int r = 0; r < k; r++) {
+				int b = neighbourLists.getNeighbour(a, r);
+				// Keep each undirected edge once, unless only one endpoint lists the other
+				if (a < b || !isNeighbour(neighbourLists, b, a)) {
+					edges[m++] = ((long) DistanceKernel.getCost(coordinates, a, b) << 32) | (a * k + r);
+				}
+			}
+		}
+
+		edges = Arrays.copyOf(edges, m);
+		Arrays.sort(edges);
+		for (int e = 0; e < m; e++) {
+			edges[e] &= 0xFFFFFFFFL;
+		}
+
+		return edges;
+	}
+
+	// Helper method to check whether b appears in the neighbour list of a
+	private static boolean isNeighbour(NeighbourLists neighbourLists, int a, int b) {
+
+		for (int r = 0; r < neighbourLists.getK(); r++) {
+			if (neighbourLists.getNeighbour(a, r) == b) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static int[] newUnionFind(int n) {
+
+		int[] parent = new int[n];
+		for (int i = 0; i < n; i++) {
+			parent[i] = i;
+		}
+
+		return parent;
+	}
+
+	private static int find(int[] parent, int i) {
+
+		while (parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+
+		return i;
+	}
+
+	// Joins the sets of a and b, returning false if they were already joined
+	private static boolean union(int[] parent, int a, int b) {
+
+		int rootA = find(parent, a);
+		int rootB = find(parent, b);
+		if (rootA == rootB) {
+			return false;
+		}
+		parent[rootA] = rootB;
+
+		return true;
+	}
+
+	private static void reverse(int[] array, int from, int to) {
+
+		while (from < to) {
+			int temp = array[from];
+			array[from] = array[to];
+			array[to] = temp;
+			from++;
+			to--;
+		}
+	}
+}
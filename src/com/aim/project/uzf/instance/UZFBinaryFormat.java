@@ -0,0 +1,67 @@
+package com.aim.project.uzf.instance;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the versioned binary instance format ({@code .uzfb}).
+ * <br>
+ * All values are little-endian 32-bit integers so that every section can be viewed directly
+ * as an {@link java.nio.IntBuffer} over a memory-mapped file.
+ * <pre>{@code
+ * header (32 bytes) : MAGIC, VERSION, flags, n, k, preparation x, preparation y, reserved
+ * coordinates       : n pairs of x, y (interleaved)
+ * neighbours        : n * k enclosure IDs, closest first (absent when k = 0)
+ * distances         : n * n costs, row-major (only when FLAG_DISTANCE_MATRIX is set)
+ * original IDs      : n enclosure IDs in the instance file, by internal ID (only when FLAG_ORIGINAL_IDS is set)
+ * }</pre>
+ */
+public final class UZFBinaryFormat {
+
+	public static final String FILE_EXTENSION = ".uzfb";
+
+	// "UZFB" when read as little-endian bytes
+	public static final int MAGIC = 0x42465A55;
+
+	public static final int VERSION = 1;
+
+	public static final int FLAG_DISTANCE_MATRIX = 1;
+
+	// Set when the enclosures were renumbered, e.g. along a Hilbert curve, before writing
+	public static final int FLAG_ORIGINAL_IDS = 2;
+
+	public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+	public static final int HEADER_BYTES = 32;
+
+	private UZFBinaryFormat() {
+	}
+
+	// Gets the byte offset of the coordinate section
+	public static long coordinatesOffset() {
+
+		return HEADER_BYTES;
+	}
+
+	// Gets the byte offset of the neighbour list section
+	public static long neighboursOffset(int numberOfEnclosures) {
+
+		return coordinatesOffset() + 2L * Integer.BYTES * numberOfEnclosures;
+	}
+
+	// Gets the byte offset of the distance matrix section
+	public static long distancesOffset(int numberOfEnclosures, int k) {
+
+		return neighboursOffset(numberOfEnclosures) + (long) Integer.BYTES * numberOfEnclosures * k;
+	}
+
+	// Gets the byte offset of the original ID section, which follows the distance matrix if there is one
+	public static long originalIdsOffset(int numberOfEnclosures, int k, int flags) {
+
+		long offset = distancesOffset(numberOfEnclosures, k);
+		if ((flags & FLAG_DISTANCE_MATRIX) != 0) {
+			offset += (long) Integer.BYTES * numberOfEnclosures * numberOfEnclosures;
+		}
+
+		return offset;
+	}
+}
@@ -1,10 +1,13 @@
 package com.aim.project.uzf.instance;
 
 
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Random;
 
+import com.aim.project.uzf.EvaluationKernel;
 import com.aim.project.uzf.UZFObjectiveFunction;
+import com.aim.project.uzf.interfaces.DistanceStoreInterface;
 import com.aim.project.uzf.interfaces.ObjectiveFunctionInterface;
 import com.aim.project.uzf.interfaces.UZFInstanceInterface;
 import com.aim.project.uzf.interfaces.UAVSolutionInterface;
@@ -18,23 +21,161 @@ import com.aim.project.uzf.solution.UZFSolution;
 public class UZFInstance implements UZFInstanceInterface {
 
 	private final int numberOfLocations;
-	private final Location[] aoLocations;
+	// Enclosure coordinates interleaved as x0, y0, x1, y1, ... rather than one Location object per enclosure
+	private final int[] coordinates;
 	private final Location foodPreparationLocation;
 	private final Random random;
+	private final DistanceMatrix distanceMatrix;
+	// Enclosure IDs in the instance file for each internal ID and the reverse mapping, or null when not renumbered
+	private final int[] originalIds;
+	private final int[] internalIds;
+	// Built on first use and shared with every view of this instance returned by withRandom
+	private final DerivedStructures derived;
+
+	// Structures derived from the coordinates, each built at most once
+	private static final class DerivedStructures {
+
+		private volatile NeighbourLists neighbourLists;
+		// Distances used for evaluation; null when they are calculated from the coordinates
+		private volatile DistanceStoreInterface distanceStore;
+		private volatile boolean distanceStoreSelected;
+		private volatile UZFObjectiveFunction objectiveFunction;
+
+		private DerivedStructures(NeighbourLists neighbourLists) {
+
+			this.neighbourLists = neighbourLists;
+		}
+	}
 	
 	public UZFInstance(int numberOfLocations, Location[] aoLocations, Location foodPreparationLocation, Random random) {
+		this(numberOfLocations, toCoordinates(aoLocations, numberOfLocations), foodPreparationLocation, random, null, null);
+	}
+
+	public UZFInstance(int numberOfLocations, int[] coordinates, Location foodPreparationLocation, Random random,
+					   NeighbourLists neighbourLists, DistanceMatrix distanceMatrix) {
+		this(numberOfLocations, coordinates, foodPreparationLocation, random, neighbourLists, distanceMatrix, null);
+	}
+
+	/**
+	 * @param originalIds The enclosure ID in the instance file of each internal ID, e.g. of an instance that was
+	 *                    renumbered before it was written, or <code>null</code> if the IDs are the same.
+	 */
+	public UZFInstance(int numberOfLocations, int[] coordinates, Location foodPreparationLocation, Random random,
+					   NeighbourLists neighbourLists, DistanceMatrix distanceMatrix, int[] originalIds) {
+		this(numberOfLocations, coordinates, foodPreparationLocation, random, distanceMatrix, originalIds,
+				invert(originalIds), new DerivedStructures(neighbourLists));
+	}
+
+	private UZFInstance(int numberOfLocations, int[] coordinates, Location foodPreparationLocation, Random random,
+						DistanceMatrix distanceMatrix, int[] originalIds, int[] internalIds, DerivedStructures derived) {
 		this.numberOfLocations = numberOfLocations;
-		this.aoLocations = aoLocations;
+		this.coordinates = coordinates;
 		this.foodPreparationLocation = foodPreparationLocation;
 		this.random = random;
+		this.distanceMatrix = distanceMatrix;
+		this.originalIds = originalIds;
+		this.internalIds = internalIds;
+		this.derived = derived;
+	}
+
+	/**
+	 * @param random The random number generator to use for new solutions.
+	 * @return A view of this instance sharing its locations and derived structures but using <code>random</code>.
+	 */
+	public UZFInstance withRandom(Random random) {
+
+		return new UZFInstance(numberOfLocations, coordinates, foodPreparationLocation, random,
+				distanceMatrix, originalIds, internalIds, derived);
+	}
+
+	/**
+	 * Renumbers the enclosures in the order they are visited by a Hilbert curve, so that enclosures which are close
+	 * in the plane are also close in memory. Locations, printed solutions and {@link #getOriginalEnclosureId(int)}
+	 * keep reporting the IDs from the instance file.
+	 *
+	 * @return A renumbered copy of this instance; loaded neighbour lists and distances are carried over.
+	 */
+	public UZFInstance renumberAlongHilbertCurve() {
+
+		int[] order = TourConstruction.hilbertOrder(coordinates, 0);
+
+		int[] renumberedCoordinates = new int[2 * numberOfLocations];
+		int[] renumberedOriginalIds = new int[numberOfLocations];
+		int[] renumberedInternalIds = new int[numberOfLocations];
+		for (int i = 0; i < numberOfLocations; i++) {
+			renumberedCoordinates[2 * i] = coordinates[2 * order[i]];
+			renumberedCoordinates[2 * i + 1] = coordinates[2 * order[i] + 1];
+			renumberedOriginalIds[i] = getOriginalEnclosureId(order[i]);
+			renumberedInternalIds[renumberedOriginalIds[i]] = i;
+		}
+
+		// Neighbour lists that were loaded with the instance are translated rather than rebuilt
+		NeighbourLists neighbourLists = derived.neighbourLists;
+		NeighbourLists renumberedNeighbourLists = null;
+		if (neighbourLists != null) {
+			int k = neighbourLists.getK();
+			int[] position = new int[numberOfLocations];
+			for (int i = 0; i < numberOfLocations; i++) {
+				position[order[i]] = i;
+			}
+			int[] neighbours = new int[numberOfLocations * k];
+			for (int i = 0; i < numberOfLocations; i++) {
+				for (int rank = 0; rank < k; rank++) {
+					neighbours[i * k + rank] = position[neighbourLists.getNeighbour(order[i], rank)];
+				}
+			}
+			renumberedNeighbourLists = new NeighbourLists(numberOfLocations, k, IntBuffer.wrap(neighbours));
+		}
+
+		DistanceMatrix renumberedDistanceMatrix = null;
+		if (distanceMatrix != null) {
+			int[] distances = new int[numberOfLocations * numberOfLocations];
+			for (int i = 0; i < numberOfLocations; i++) {
+				for (int j = 0; j < numberOfLocations; j++) {
+					distances[i * numberOfLocations + j] = distanceMatrix.getCost(order[i], order[j]);
+				}
+			}
+			renumberedDistanceMatrix = new DistanceMatrix(numberOfLocations, IntBuffer.wrap(distances));
+		}
+
+		return new UZFInstance(numberOfLocations, renumberedCoordinates, foodPreparationLocation, random,
+				renumberedDistanceMatrix, renumberedOriginalIds, renumberedInternalIds,
+				new DerivedStructures(renumberedNeighbourLists));
+	}
+
+	// Helper method to get the internal ID of each original ID, or null if the IDs are the same
+	private static int[] invert(int[] originalIds) {
+
+		if (originalIds == null) {
+			return null;
+		}
+
+		int[] internalIds = new int[originalIds.length];
+		for (int i = 0; i < originalIds.length; i++) {
+			internalIds[originalIds[i]] = i;
+		}
+
+		return internalIds;
 	}
 
 	// Create a solution for the instance
 	@Override
 	public UZFSolution createSolution(InitialisationMode mode) {
 		int[] solutionRepresentationArray = new int[numberOfLocations];
+		ObjectiveFunctionInterface objectiveFunction = getUZFObjectiveFunction();
 
-		if (mode ==  InitialisationMode.RANDOM) {
+		if (mode == InitialisationMode.HILBERT) {
+			solutionRepresentationArray = TourConstruction.hilbert(coordinates, objectiveFunction, random);
+		}
+		else if (mode == InitialisationMode.GREEDY_EDGE) {
+			solutionRepresentationArray = TourConstruction.greedyEdge(coordinates, getNeighbourLists(),
+					objectiveFunction, random);
+		}
+		else if (mode == InitialisationMode.SPANNING_TREE) {
+			solutionRepresentationArray = TourConstruction.spanningTree(coordinates, getNeighbourLists(),
+					objectiveFunction, random);
+		}
+		else if (mode ==  InitialisationMode.RANDOM) {
 			// Generate a random solution representation
 			for (int i = 0; i < numberOfLocations; i++) {
 				solutionRepresentationArray[i] = i;
@@ -45,7 +186,7 @@ public class UZFInstance implements UZFInstanceInterface {
 		else if (mode == InitialisationMode.CONSTRUCTIVE) {
 			// Constructive initialisation using nearest neighbor greedy algorithm
 			boolean[] visited = new boolean[numberOfLocations];
-			solutionRepresentationArray[0] = new Random().nextInt(0, numberOfLocations); // Start from pseudo random location
+			solutionRepresentationArray[0] = random.nextInt(numberOfLocations); // Start from pseudo random location
 			visited[solutionRepresentationArray[0]] = true;
 
 			for (int i = 1; i < numberOfLocations; i++) {
@@ -58,14 +199,25 @@ public class UZFInstance implements UZFInstanceInterface {
 		SolutionRepresentation solutionRepresentation = new SolutionRepresentation(solutionRepresentationArray);
 		
 		return new UZFSolution(solutionRepresentation, 
-				this.getUZFObjectiveFunction().getObjectiveFunctionValue(solutionRepresentation));
+				objectiveFunction.getObjectiveFunctionValue(solutionRepresentation), objectiveFunction);
 	}
 
-	// Get objective function of the instance
+	// Get objective function of the instance, created once and shared by every caller and thread
 	@Override
 	public ObjectiveFunctionInterface getUZFObjectiveFunction() {
 
-		return new UZFObjectiveFunction(this);
+		UZFObjectiveFunction objectiveFunction = derived.objectiveFunction;
+		if (objectiveFunction == null) {
+			synchronized (derived) {
+				objectiveFunction = derived.objectiveFunction;
+				if (objectiveFunction == null) {
+					objectiveFunction = new UZFObjectiveFunction(this);
+					derived.objectiveFunction = objectiveFunction;
+				}
+			}
+		}
+
+		return objectiveFunction;
 	}
 
 	// Gets the number of locations
@@ -75,11 +227,33 @@ public class UZFInstance implements UZFInstanceInterface {
 		return numberOfLocations;
 	}
 
-	// Gets the location for the given enclosure ID
+	// Gets a view of the location for the given enclosure ID; location IDs follow the food preparation area
 	@Override
 	public Location getLocationForEnclosure(int iEnclosureId) {
 
-		return this.aoLocations[iEnclosureId];
+		return new Location(getOriginalEnclosureId(iEnclosureId) + 1,
+				coordinates[2 * iEnclosureId], coordinates[2 * iEnclosureId + 1]);
+	}
+
+	// Gets the ID the enclosure had in the instance file
+	@Override
+	public int getOriginalEnclosureId(int iEnclosureId) {
+
+		return originalIds == null ? iEnclosureId : originalIds[iEnclosureId];
+	}
+
+	// Gets the internal ID of the enclosure with the given ID in the instance file
+	@Override
+	public int getEnclosureId(int iOriginalEnclosureId) {
+
+		return internalIds == null ? iOriginalEnclosureId : internalIds[iOriginalEnclosureId];
+	}
+
+	// Gets the enclosure coordinates interleaved as x0, y0, x1, y1, ...
+	@Override
+	public int[] getEnclosureCoordinates() {
+
+		return this.coordinates;
 	}
 
 	// Gets the location for the food preparation area
@@ -89,6 +263,47 @@ public class UZFInstance implements UZFInstanceInterface {
 		return this.foodPreparationLocation;
 	}
 
+	// Gets the neighbour lists, building them on first use if they were not loaded with the instance
+	@Override
+	public NeighbourLists getNeighbourLists() {
+
+		NeighbourLists lists = derived.neighbourLists;
+		if (lists == null) {
+			synchronized (derived) {
+				lists = derived.neighbourLists;
+				if (lists == null) {
+					lists = NeighbourLists.compute(coordinates, NeighbourLists.DEFAULT_NUMBER_OF_NEIGHBOURS);
+					derived.neighbourLists = lists;
+				}
+			}
+		}
+
+		return lists;
+	}
+
+	// Gets the precomputed distance matrix, or null if the instance was loaded without one
+	@Override
+	public DistanceMatrix getDistanceMatrix() {
+
+		return this.distanceMatrix;
+	}
+
+	// Gets the distances used for evaluation, letting the objective function choose a store on first use
+	@Override
+	public DistanceStoreInterface getDistanceStore() {
+
+		if (!derived.distanceStoreSelected) {
+			synchronized (derived) {
+				if (!derived.distanceStoreSelected) {
+					derived.distanceStore = UZFObjectiveFunction.selectDistanceStore(this);
+					derived.distanceStoreSelected = true;
+				}
+			}
+		}
+
+		return derived.distanceStore;
+	}
+
 	// Gets the solution as a list of locations
 	@Override
 	public ArrayList<Location> getSolutionAsListOfLocations(UAVSolutionInterface oSolution) {
@@ -97,30 +312,31 @@ public class UZFInstance implements UZFInstanceInterface {
 		int[] solutionRepresentation = oSolution.getSolutionRepresentation().getSolutionRepresentation();
 
         for (int index : solutionRepresentation) {
-            solutionLocations.add(aoLocations[index]);
+            solutionLocations.add(getLocationForEnclosure(index));
         }
 
 		return solutionLocations;
 	}
 
 
+	// Helper method to interleave the coordinates of an array of locations as x0, y0, x1, y1, ...
+	private static int[] toCoordinates(Location[] aoLocations, int numberOfLocations) {
+
+		int[] coordinates = new int[2 * numberOfLocations];
+		for (int i = 0; i < numberOfLocations; i++) {
+			coordinates[2 * i] = aoLocations[i].x();
+			coordinates[2 * i + 1] = aoLocations[i].y();
+		}
+
+		return coordinates;
+	}
+
 	// Helper method to get nearest neighbour greedy algorithm
 	private int getNearestNeighbor(int[] solutionRepresentationArray, int i, boolean[] visited) {
-		int nearestNeighbor = -1;
-		double minDistance = Double.MAX_VALUE;
-		Location currentLocation = aoLocations[solutionRepresentationArray[i - 1]];
-
-		for (int j = 0; j < this.numberOfLocations; j++) {
-			if (!visited[j]) {
-				UZFObjectiveFunction objectiveFunction = (UZFObjectiveFunction) this.getUZFObjectiveFunction();
-				double distance = objectiveFunction.getCost(currentLocation, aoLocations[j]);
-				if (distance < minDistance) {
-					minDistance = distance;
-					nearestNeighbor = j;
-				}
-			}
-		}
-		return nearestNeighbor;
+		int currentLocation = solutionRepresentationArray[i - 1];
+
+		// Scan the coordinates with the kernel selected at startup
+		return EvaluationKernel.getDefault().getNearestUnvisited(coordinates, currentLocation, visited);
 	}
 
 	// Helper method to shuffle an array randomly
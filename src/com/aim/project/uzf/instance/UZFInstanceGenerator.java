@@ -0,0 +1,337 @@
+package com.aim.project.uzf.instance;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Generates synthetic instances for scale testing.
+ * <br>
+ * Enclosures are produced one at a time from a seeded random number generator and written straight
+ * to the output file, so the instance is never held in memory. Files ending in {@code .uzfb} are written
+ * in the binary format without neighbour lists (these are built on first use after loading); all other
+ * paths are written in the text format.
+ */
+public class UZFInstanceGenerator {
+
+	// Average spacing between neighbouring enclosures, keeping the density the same at every size
+	private static final int SPACING = 100;
+
+	private static final int BUFFER_BYTES = 1 << 16;
+
+	private final InstanceLayout layout;
+	private final int numberOfEnclosures;
+	private final long seed;
+
+	public UZFInstanceGenerator(InstanceLayout layout, int numberOfEnclosures, long seed) {
+
+		this.layout = layout;
+		this.numberOfEnclosures = numberOfEnclosures;
+		this.seed = seed;
+	}
+
+	/**
+	 * Writes the instance to <code>path</code>, using the binary format if the path ends in {@code .uzfb}.
+	 */
+	public void generate(Path path) throws IOException {
+
+		if (path.toString().endsWith(UZFBinaryFormat.FILE_EXTENSION)) {
+			generateBinary(path);
+		} else {
+			generateText(path);
+		}
+	}
+
+	// Writes the instance in the text format
+	private void generateText(Path path) throws IOException {
+
+		EnclosureSource source = createSource();
+		int[] xy = new int[2];
+
+		try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+			writer.write("NAME : " + getName());
+			writer.newLine();
+			writer.write("COMMENT : generated " + layout.name().toLowerCase() + " layout, seed " + seed);
+			writer.newLine();
+			writer.write("PREPARATION_AREA");
+			writer.newLine();
+			writer.write(source.getPreparationX() + " " + source.getPreparationY());
+			writer.newLine();
+			writer.write("ENCLOSURE_LOCATIONS");
+			writer.newLine();
+			for (int i = 0; i < numberOfEnclosures; i++) {
+				source.next(i, xy);
+				writer.write(Integer.toString(xy[0]));
+				writer.write(' ');
+				writer.write(Integer.toString(xy[1]));
+				writer.newLine();
+			}
+			writer.write("EOF");
+			writer.newLine();
+		}
+	}
+
+	// Writes the instance in the binary format, without neighbour lists or distances
+	private void generateBinary(Path path) throws IOException {
+
+		EnclosureSource source = createSource();
+		int[] xy = new int[2];
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(UZFBinaryFormat.BYTE_ORDER);
+			buffer.putInt(UZFBinaryFormat.MAGIC);
+			buffer.putInt(UZFBinaryFormat.VERSION);
+			buffer.putInt(0);
+			buffer.putInt(numberOfEnclosures);
+			buffer.putInt(0);
+			buffer.putInt(source.getPreparationX());
+			buffer.putInt(source.getPreparationY());
+			buffer.putInt(0);
+
+			for (int i = 0; i < numberOfEnclosures; i++) {
+				source.next(i, xy);
+				if (buffer.remaining() < 2 * Integer.BYTES) {
+					flush(channel, buffer);
+				}
+				buffer.putInt(xy[0]);
+				buffer.putInt(xy[1]);
+			}
+			flush(channel, buffer);
+		}
+	}
+
+	// Helper method to write out everything buffered so far
+	private void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	// Gets the instance name, e.g. "clustered-100000-seed-18032024"
+	public String getName() {
+
+		return layout.name().toLowerCase() + "-" + numberOfEnclosures + "-seed-" + seed;
+	}
+
+	// Creates the enclosure source for the configured layout
+	private EnclosureSource createSource() {
+
+		Random random = new Random(seed);
+		int side = (int) Math.ceil(Math.sqrt(numberOfEnclosures)) * SPACING;
+
+		return switch (layout) {
+			case UNIFORM -> new UniformSource(random, side);
+			case CLUSTERED -> new ClusteredSource(random, side, numberOfEnclosures);
+			case GRID -> new GridSource(side, numberOfEnclosures);
+			case ROAD -> new RoadSource(random, side);
+		};
+	}
+
+	/**
+	 * Produces the coordinates of one enclosure at a time within a square of the given side.
+	 * The preparation area is placed at the centre of the square.
+	 */
+	private abstract static class EnclosureSource {
+
+		protected final int side;
+
+		EnclosureSource(int side) {
+
+			this.side = side;
+		}
+
+		int getPreparationX() {
+
+			return side / 2;
+		}
+
+		int getPreparationY() {
+
+			return side / 2;
+		}
+
+		// Writes the coordinates of the i-th enclosure into xy
+		abstract void next(int i, int[] xy);
+
+		// Helper method to keep a coordinate within the square
+		int clamp(double value) {
+
+			return (int) Math.max(0, Math.min(side, Math.round(value)));
+		}
+	}
+
+	// Enclosures spread uniformly over the square
+	private static class UniformSource extends EnclosureSource {
+
+		private final Random random;
+
+		UniformSource(Random random, int side) {
+
+			super(side);
+			this.random = random;
+		}
+
+		@Override
+		void next(int i, int[] xy) {
+
+			xy[0] = random.nextInt(side + 1);
+			xy[1] = random.nextInt(side + 1);
+		}
+	}
+
+	// Dense clusters of enclosures with a few sporadic ones in between, as in clustered-enclosures.uzf
+	private static class ClusteredSource extends EnclosureSource {
+
+		private static final double SPORADIC_PROBABILITY = 0.1;
+
+		private final Random random;
+		private final int[] centreX;
+		private final int[] centreY;
+		private final double radius;
+
+		ClusteredSource(Random random, int side, int numberOfEnclosures) {
+
+			super(side);
+			this.random = random;
+
+			// Roughly a thousand enclosures per cluster, with a handful of clusters for small instances
+			int numberOfClusters = Math.max(4, numberOfEnclosures / 1000);
+			this.centreX = new int[numberOfClusters];
+			this.centreY = new int[numberOfClusters];
+			for (int c = 0; c < numberOfClusters; c++) {
+				centreX[c] = random.nextInt(side + 1);
+				centreY[c] = random.nextInt(side + 1);
+			}
+			this.radius = side / (4.0 * Math.sqrt(numberOfClusters));
+		}
+
+		@Override
+		void next(int i, int[] xy) {
+
+			if (random.nextDouble() < SPORADIC_PROBABILITY) {
+				xy[0] = random.nextInt(side + 1);
+				xy[1] = random.nextInt(side + 1);
+			} else {
+				int c = random.nextInt(centreX.length);
+				xy[0] = clamp(centreX[c] + random.nextGaussian() * radius);
+				xy[1] = clamp(centreY[c] + random.nextGaussian() * radius);
+			}
+		}
+	}
+
+	// Enclosures on a regular grid, filled row by row
+	private static class GridSource extends EnclosureSource {
+
+		private final int columns;
+
+		GridSource(int side, int numberOfEnclosures) {
+
+			super(side);
+			this.columns = (int) Math.ceil(Math.sqrt(numberOfEnclosures));
+		}
+
+		@Override
+		int getPreparationX() {
+
+			return 0;
+		}
+
+		@Override
+		int getPreparationY() {
+
+			return 0;
+		}
+
+		@Override
+		void next(int i, int[] xy) {
+
+			xy[0] = (i % columns) * SPACING;
+			xy[1] = (i / columns + 1) * SPACING;
+		}
+	}
+
+	// Enclosures strung along meandering roads that branch off earlier junctions
+	private static class RoadSource extends EnclosureSource {
+
+		private static final int MAX_JUNCTIONS = 1024;
+		private static final double NEW_ROAD_PROBABILITY = 0.01;
+		private static final double TURN = 0.3;
+
+		private final Random random;
+		private final int[] junctionX = new int[MAX_JUNCTIONS];
+		private final int[] junctionY = new int[MAX_JUNCTIONS];
+		private int numberOfJunctions = 0;
+
+		private double x;
+		private double y;
+		private double heading;
+
+		RoadSource(Random random, int side) {
+
+			super(side);
+			this.random = random;
+			this.x = side / 2.0;
+			this.y = side / 2.0;
+			this.heading = random.nextDouble() * 2 * Math.PI;
+		}
+
+		@Override
+		void next(int i, int[] xy) {
+
+			// Occasionally start a new road from a remembered junction
+			if (numberOfJunctions > 0 && random.nextDouble() < NEW_ROAD_PROBABILITY) {
+				int j = random.nextInt(numberOfJunctions);
+				x = junctionX[j];
+				y = junctionY[j];
+				heading = random.nextDouble() * 2 * Math.PI;
+			}
+
+			// Walk along the road, bouncing off the edges of the square
+			heading += random.nextGaussian() * TURN;
+			x += Math.cos(heading) * SPACING;
+			y += Math.sin(heading) * SPACING;
+			if (x < 0 || x > side || y < 0 || y > side) {
+				heading += Math.PI;
+				x = Math.max(0, Math.min(side, x));
+				y = Math.max(0, Math.min(side, y));
+			}
+			xy[0] = clamp(x);
+			xy[1] = clamp(y);
+
+			// Remember some of the visited points as junctions, replacing old ones once full
+			if (random.nextDouble() < NEW_ROAD_PROBABILITY) {
+				int j = numberOfJunctions < MAX_JUNCTIONS ? numberOfJunctions++ : random.nextInt(MAX_JUNCTIONS);
+				junctionX[j] = xy[0];
+				junctionY[j] = xy[1];
+			}
+		}
+	}
+
+	/**
+	 * Usage: {@code UZFInstanceGenerator <UNIFORM|CLUSTERED|GRID|ROAD> <enclosures> <output.uzf|output.uzfb> [seed]}
+	 */
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 3) {
+			System.err.println("Usage: UZFInstanceGenerator <UNIFORM|CLUSTERED|GRID|ROAD> <enclosures> "
+					+ "<output.uzf|output.uzfb> [seed]");
+			System.exit(1);
+		}
+
+		InstanceLayout layout = InstanceLayout.valueOf(args[0].toUpperCase());
+		int numberOfEnclosures = Integer.parseInt(args[1]);
+		long seed = args.length > 3 ? Long.parseLong(args[3]) : 18032024;
+		new UZFInstanceGenerator(layout, numberOfEnclosures, seed).generate(Path.of(args[2]));
+	}
+}
@@ -4,12 +4,17 @@ package com.aim.project.uzf.instance.reader;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Random;
 
+import com.aim.project.uzf.instance.DistanceMatrix;
 import com.aim.project.uzf.instance.Location;
+import com.aim.project.uzf.instance.NeighbourLists;
+import com.aim.project.uzf.instance.UZFBinaryFormat;
 import com.aim.project.uzf.instance.UZFInstance;
 import com.aim.project.uzf.interfaces.UZFInstanceInterface;
 import com.aim.project.uzf.interfaces.UAVInstanceReaderInterface;
@@ -20,16 +25,50 @@ import com.aim.project.uzf.interfaces.UAVInstanceReaderInterface;
  */
 public class UAVInstanceReader implements UAVInstanceReaderInterface {
 
+	private final boolean renumberEnclosures;
+
+	public UAVInstanceReader() {
+
+		this(false);
+	}
+
+	/**
+	 * @param renumberEnclosures Whether to renumber the enclosures along a Hilbert curve after reading, see
+	 *                           {@link UZFInstance#renumberAlongHilbertCurve()}.
+	 */
+	public UAVInstanceReader(boolean renumberEnclosures) {
+
+		this.renumberEnclosures = renumberEnclosures;
+	}
+
 	@Override
 	public UZFInstanceInterface readUZFInstance(Path path, Random random) {
 
+		UZFInstance instance = read(path, random);
+		if (instance != null && renumberEnclosures) {
+			instance = instance.renumberAlongHilbertCurve();
+		}
+
+		return instance;
+	}
+
+	// Helper method to read the instance in the order of the file
+	private UZFInstance read(Path path, Random random) {
+
+		// Binary instances are memory-mapped rather than parsed
+		if (path.toString().endsWith(UZFBinaryFormat.FILE_EXTENSION)) {
+			return readBinaryUZFInstance(path, random);
+		}
+
 		try (BufferedReader reader = new BufferedReader(new FileReader(path.toFile()))) {
 			String line;
 
 			String name = "";
 			String comment = "";
 
-			List<Location> enclosures = new ArrayList<>();
+			// Enclosure coordinates interleaved as x0, y0, x1, y1, ...
+			int[] enclosures = new int[64];
+			int numberOfEnclosures = 0;
 			Location preparationArea = null;
 
 			while ((line = reader.readLine()) != null) {
@@ -41,18 +80,24 @@ public class UAVInstanceReader implements UAVInstanceReaderInterface {
 					String[] coordinates = reader.readLine().trim().split("\\s+");
 					int preparationAreaX = Integer.parseInt(coordinates[0]);
 					int preparationAreaY = Integer.parseInt(coordinates[1]);
-					preparationArea = new Location(preparationAreaX, preparationAreaY);
+					preparationArea = new Location(0, preparationAreaX, preparationAreaY);
 				} else if (line.startsWith("ENCLOSURE_LOCATIONS")) {
 					while (!(line = reader.readLine().trim()).equals("EOF")) {
 						String[] coordinates = line.split("\\s+");
 						int x = Integer.parseInt(coordinates[0]);
 						int y = Integer.parseInt(coordinates[1]);
-						enclosures.add(new Location(x, y));
+						if (2 * numberOfEnclosures == enclosures.length) {
+							enclosures = Arrays.copyOf(enclosures, 2 * enclosures.length);
+						}
+						enclosures[2 * numberOfEnclosures] = x;
+						enclosures[2 * numberOfEnclosures + 1] = y;
+						numberOfEnclosures++;
 					}
 				}
 			}
 
-			return new UZFInstance(enclosures.size(), enclosures.toArray(new Location[0]), preparationArea, random);
+			return new UZFInstance(numberOfEnclosures, Arrays.copyOf(enclosures, 2 * numberOfEnclosures),
+					preparationArea, random, null, null);
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
@@ -60,4 +105,96 @@ public class UAVInstanceReader implements UAVInstanceReaderInterface {
 
 		return null;
 	}
+
+	// Reads a binary instance, viewing the neighbour lists and distances directly from the mapped file
+	private UZFInstance readBinaryUZFInstance(Path path, Random random) {
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+			ByteBuffer header = map(channel, 0, UZFBinaryFormat.HEADER_BYTES);
+			if (header.getInt(0) != UZFBinaryFormat.MAGIC) {
+				throw new IOException("Not a binary UZF instance: " + path);
+			}
+			if (header.getInt(4) != UZFBinaryFormat.VERSION) {
+				throw new IOException("Unsupported binary UZF version " + header.getInt(4) + ": " + path);
+			}
+
+			int flags = header.getInt(8);
+			int numberOfEnclosures = header.getInt(12);
+			int k = header.getInt(16);
+			Location preparationArea = new Location(0, header.getInt(20), header.getInt(24));
+			if (numberOfEnclosures < 0 || k < 0) {
+				throw new IOException("Corrupt binary UZF header: " + path);
+			}
+
+			// Coordinates are bulk-copied onto the heap since every distance evaluation reads them
+			int[] enclosures = new int[2 * numberOfEnclosures];
+			map(channel, UZFBinaryFormat.coordinatesOffset(),
+					2L * Integer.BYTES * numberOfEnclosures).asIntBuffer().get(enclosures);
+
+			NeighbourLists neighbourLists = null;
+			if (k > 0) {
+				neighbourLists = new NeighbourLists(numberOfEnclosures, k, map(channel,
+						UZFBinaryFormat.neighboursOffset(numberOfEnclosures),
+						(long) Integer.BYTES * numberOfEnclosures * k).asIntBuffer());
+			}
+
+			DistanceMatrix distanceMatrix = null;
+			if ((flags & UZFBinaryFormat.FLAG_DISTANCE_MATRIX) != 0) {
+				// The matrix is viewed through a single buffer, which cannot span more than 2 GB of the file
+				if (numberOfEnclosures > DistanceMatrix.MAX_NUMBER_OF_ENCLOSURES) {
+					throw new IOException("Distance matrix of " + numberOfEnclosures
+							+ " enclosures is too large to map: " + path);
+				}
+				distanceMatrix = new DistanceMatrix(numberOfEnclosures, map(channel,
+						UZFBinaryFormat.distancesOffset(numberOfEnclosures, k),
+						(long) Integer.BYTES * numberOfEnclosures * numberOfEnclosures).asIntBuffer());
+			}
+
+			// IDs of the instance file that a renumbered instance was written with, copied so they can be checked
+			int[] originalIds = null;
+			if ((flags & UZFBinaryFormat.FLAG_ORIGINAL_IDS) != 0) {
+				originalIds = new int[numberOfEnclosures];
+				map(channel, UZFBinaryFormat.originalIdsOffset(numberOfEnclosures, k, flags),
+						(long) Integer.BYTES * numberOfEnclosures).asIntBuffer().get(originalIds);
+				if (!isPermutation(originalIds)) {
+					throw new IOException("Corrupt original enclosure IDs: " + path);
+				}
+			}
+
+			return new UZFInstance(numberOfEnclosures, enclosures, preparationArea, random, neighbourLists, distanceMatrix,
+					originalIds);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		return null;
+	}
+
+	// Helper method to check that every ID from 0 to ids.length - 1 occurs exactly once
+	private static boolean isPermutation(int[] ids) {
+
+		boolean[] seen = new boolean[ids.length];
+		for (int id : ids) {
+			if (id < 0 || id >= ids.length || seen[id]) {
+				return false;
+			}
+			seen[id] = true;
+		}
+
+		return true;
+	}
+
+	// Helper method to map a section of the file; the mapping stays valid after the channel is closed
+	private ByteBuffer map(FileChannel channel, long offset, long size) throws IOException {
+
+		if (offset + size > channel.size()) {
+			throw new IOException("Truncated binary UZF instance");
+		}
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("Section of " + size + " bytes is too large to map");
+		}
+
+		return channel.map(FileChannel.MapMode.READ_ONLY, offset, size).order(UZFBinaryFormat.BYTE_ORDER);
+	}
 }
@@ -0,0 +1,133 @@
+package com.aim.project.uzf.instance.writer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import com.aim.project.uzf.instance.DistanceMatrix;
+import com.aim.project.uzf.instance.Location;
+import com.aim.project.uzf.instance.NeighbourLists;
+import com.aim.project.uzf.instance.UZFBinaryFormat;
+import com.aim.project.uzf.instance.reader.UAVInstanceReader;
+import com.aim.project.uzf.interfaces.UZFInstanceInterface;
+
+/**
+ * Writes a loaded instance to the binary instance format described by {@link UZFBinaryFormat},
+ * including its neighbour lists, optionally its full distance matrix and, for renumbered instances, the enclosure
+ * IDs of the instance file.
+ */
+public class UAVInstanceWriter {
+
+	private static final int BUFFER_BYTES = 1 << 16;
+
+	/**
+	 * @param oInstance The instance to write.
+	 * @param path The path of the binary instance file to create.
+	 * @param includeDistanceMatrix Whether to store every pairwise distance as well.
+	 */
+	public void writeBinaryUZFInstance(UZFInstanceInterface oInstance, Path path, boolean includeDistanceMatrix)
+			throws IOException {
+
+		int numberOfEnclosures = oInstance.getNumberOfLocations();
+		NeighbourLists neighbourLists = oInstance.getNeighbourLists();
+		DistanceMatrix distanceMatrix = null;
+		if (includeDistanceMatrix) {
+			distanceMatrix = oInstance.getDistanceMatrix() != null ? oInstance.getDistanceMatrix()
+					: DistanceMatrix.compute(oInstance.getUZFObjectiveFunction(), numberOfEnclosures);
+		}
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(UZFBinaryFormat.BYTE_ORDER);
+
+			// Only renumbered instances need the IDs of the instance file stored alongside
+			boolean renumbered = false;
+			for (int i = 0; i < numberOfEnclosures && !renumbered; i++) {
+				renumbered = oInstance.getOriginalEnclosureId(i) != i;
+			}
+			int flags = (distanceMatrix != null ? UZFBinaryFormat.FLAG_DISTANCE_MATRIX : 0)
+					| (renumbered ? UZFBinaryFormat.FLAG_ORIGINAL_IDS : 0);
+
+			// Header
+			Location foodPreparationArea = oInstance.getLocationOfFoodPreparationArea();
+			buffer.putInt(UZFBinaryFormat.MAGIC);
+			buffer.putInt(UZFBinaryFormat.VERSION);
+			buffer.putInt(flags);
+			buffer.putInt(numberOfEnclosures);
+			buffer.putInt(neighbourLists.getK());
+			buffer.putInt(foodPreparationArea.x());
+			buffer.putInt(foodPreparationArea.y());
+			buffer.putInt(0);
+
+			// Coordinates
+			int[] coordinates = oInstance.getEnclosureCoordinates();
+			for (int i = 0; i < 2 * numberOfEnclosures; i++) {
+				putInt(channel, buffer, coordinates[i]);
+			}
+
+			// Neighbour lists and distances
+			putInts(channel, buffer, neighbourLists.getBuffer());
+			if (distanceMatrix != null) {
+				putInts(channel, buffer, distanceMatrix.getBuffer());
+			}
+
+			// Original IDs
+			if (renumbered) {
+				for (int i = 0; i < numberOfEnclosures; i++) {
+					putInt(channel, buffer, oInstance.getOriginalEnclosureId(i));
+				}
+			}
+
+			flush(channel, buffer);
+		}
+	}
+
+	// Helper method to append a value, draining the buffer to the channel when full
+	private void putInt(FileChannel channel, ByteBuffer buffer, int value) throws IOException {
+
+		if (buffer.remaining() < Integer.BYTES) {
+			flush(channel, buffer);
+		}
+		buffer.putInt(value);
+	}
+
+	// Helper method to append every remaining value of an int buffer
+	private void putInts(FileChannel channel, ByteBuffer buffer, IntBuffer values) throws IOException {
+
+		values.rewind();
+		while (values.hasRemaining()) {
+			putInt(channel, buffer, values.get());
+		}
+	}
+
+	// Helper method to write out everything buffered so far
+	private void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Converts a text instance into the binary format.
+	 * Usage: {@code UAVInstanceWriter <input.uzf> <output.uzfb> [--distances]}
+	 */
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 2) {
+			System.err.println("Usage: UAVInstanceWriter <input.uzf> <output.uzfb> [--distances]");
+			System.exit(1);
+		}
+
+		UZFInstanceInterface instance = new UAVInstanceReader().readUZFInstance(Path.of(args[0]), new Random());
+		boolean includeDistanceMatrix = args.length > 2 && args[2].equals("--distances");
+		new UAVInstanceWriter().writeBinaryUZFInstance(instance, Path.of(args[1]), includeDistanceMatrix);
+	}
+}
@@ -0,0 +1,21 @@
+package com.aim.project.uzf.interfaces;
+
+/**
+ * Interface for a store of precomputed distances between pairs of enclosures.
+ */
+public interface DistanceStoreInterface {
+
+	/**
+	 *
+	 * @return The number of enclosures the store holds distances for.
+	 */
+	public int getNumberOfEnclosures();
+
+	/**
+	 *
+	 * @param iLocationA ID of the enclosure travelling from.
+	 * @param iLocationB ID of the enclosure travelling to.
+	 * @return The distance between enclosures <code>iLocationA</code> and <code>iLocationB</code>.
+	 */
+	public int getCost(int iLocationA, int iLocationB);
+}
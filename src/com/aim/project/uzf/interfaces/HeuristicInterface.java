@@ -1,5 +1,7 @@
 package com.aim.project.uzf.interfaces;
 
+import com.aim.project.uzf.instance.NeighbourLists;
+
 /**
  * @author Warren G Jackson
  * @since 1.0.0 (22/03/2024)
@@ -14,12 +16,47 @@ public interface HeuristicInterface {
 	 * @param dIntensityOfMutation The current intensity of mutation setting.
 	 */
 	public int apply(UAVSolutionInterface oSolution, double dDepthOfSearch, double dIntensityOfMutation);
+
+	/**
+	 * Applies this heuristic like {@link #apply(UAVSolutionInterface, double, double)}, but may leave the objective
+	 * value of the solution invalidated rather than evaluate the whole tour only to return it, so that whoever reads
+	 * the value next evaluates the tour once. Heuristics that end in such an evaluation override this.
+	 * @param oSolution The solution to apply the heuristic to.
+	 * @param dDepthOfSearch The current depth of search setting.
+	 * @param dIntensityOfMutation The current intensity of mutation setting.
+	 */
+	public default void applyWithoutEvaluating(UAVSolutionInterface oSolution, double dDepthOfSearch,
+			double dIntensityOfMutation) {
+
+		apply(oSolution, dDepthOfSearch, dIntensityOfMutation);
+	}
 	
 	public boolean isCrossover();
 	
 	public boolean usesIntensityOfMutation();
 	
 	public boolean usesDepthOfSearch();
+
+	/**
+	 * @return Whether the heuristic changes the solution only through the operators of
+	 * {@link com.aim.project.uzf.heuristics.HeuristicOperators} that take a solution, which record each change in its
+	 * move journal, so that the domain may apply it in place and undo it.
+	 */
+	public boolean recordsMoves();
 	
 	public void setObjectiveFunction(ObjectiveFunctionInterface oObjectiveFunction);
+
+	/**
+	 * Sets the nearest neighbours of the loaded instance, for heuristics that restrict their moves to them.
+	 * @param oNeighbourLists The neighbour lists of the instance.
+	 */
+	public default void setNeighbourLists(NeighbourLists oNeighbourLists) {
+	}
+
+	/**
+	 * Forgets what the heuristic learned from earlier calls, so that a run does not depend on the runs before it.
+	 * The domain calls this whenever an instance is loaded.
+	 */
+	public default void reset() {
+	}
 }
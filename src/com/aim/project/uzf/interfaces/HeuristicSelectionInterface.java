@@ -0,0 +1,28 @@
+package com.aim.project.uzf.interfaces;
+
+/**
+ * Chooses the low-level heuristic a hyper-heuristic applies next, learning from the outcome of every call.
+ * Implementations keep their state in primitive fields and arrays, so selecting and updating do not allocate.
+ */
+public interface HeuristicSelectionInterface {
+
+	/**
+	 * Resets the selection for a new search.
+	 * @param iNumberOfHeuristics The number of low-level heuristics to choose from.
+	 */
+	public void initialise(int iNumberOfHeuristics);
+
+	/**
+	 * 
+	 * @return The index of the heuristic to apply next.
+	 */
+	public int select();
+
+	/**
+	 * Records the outcome of a heuristic call.
+	 * @param iHeuristic The heuristic that was applied.
+	 * @param dImprovement The decrease in objective value relative to the current cost (negative if worse).
+	 * @param lRuntime The nanoseconds the call took.
+	 */
+	public void update(int iHeuristic, double dImprovement, long lRuntime);
+}
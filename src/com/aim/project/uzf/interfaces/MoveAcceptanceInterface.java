@@ -0,0 +1,23 @@
+package com.aim.project.uzf.interfaces;
+
+/**
+ * Decides whether a hyper-heuristic moves to a candidate solution. Implementations keep their state in primitive
+ * fields and arrays, so deciding does not allocate.
+ */
+public interface MoveAcceptanceInterface {
+
+	/**
+	 * Resets the acceptance for a new search.
+	 * @param dInitialCost The objective value of the initial solution.
+	 */
+	public void initialise(double dInitialCost);
+
+	/**
+	 * 
+	 * @param dCurrentCost The objective value of the current solution.
+	 * @param dCandidateCost The objective value of the candidate solution.
+	 * @param dProgress The share of the time limit that has elapsed, in [0,1].
+	 * @return Whether the candidate replaces the current solution.
+	 */
+	public boolean accept(double dCurrentCost, double dCandidateCost, double dProgress);
+}
@@ -1,5 +1,7 @@
 package com.aim.project.uzf.interfaces;
 
+import com.aim.project.uzf.solution.MoveJournal;
+
 /**
  * @author Warren G Jackson
  * @since 1.0.0 (22/03/2024)
@@ -24,6 +26,36 @@ public interface SolutionRepresentationInterface extends Cloneable {
 	 */
 	public int getNumberOfLocations();
 
+	/**
+	 *
+	 * @return The journal that operations on this representation are recorded in, or <code>null</code> if none.
+	 */
+	public MoveJournal getMoveJournal();
+
+	/**
+	 * Attaches a journal that the heuristic operators record their operations in, or detaches it if <code>null</code>.
+	 * @param oMoveJournal The journal to record in.
+	 */
+	public void setMoveJournal(MoveJournal oMoveJournal);
+
+	/**
+	 *
+	 * @return The {@link com.aim.project.uzf.solution.EdgeHash} of the representation, calculated only if the
+	 * representation was changed other than through {@link #updateEdgeHash(long)} since it was last known.
+	 */
+	public long getEdgeHash();
+
+	/**
+	 * Applies the effect of a move on the edge hash, if the hash is known.
+	 * @param lChange The XOR of the edge keys removed and added by the move.
+	 */
+	public void updateEdgeHash(long lChange);
+
+	/**
+	 * Marks the edge hash as unknown after the representation array was written to directly.
+	 */
+	public void invalidateEdgeHash();
+
 	/**
 	 * 
 	 * @return A deep clone of the solution representation.
@@ -18,6 +18,13 @@ public interface UAVSolutionInterface extends Cloneable {
 	 * @param objectiveFunctionValue The new objective function value.
 	 */
 	public void setObjectiveFunctionValue(int objectiveFunctionValue);
+
+	/**
+	 * 
+	 * Marks the objective value as out of date after the representation was changed. It is recalculated
+	 * the next time it is read, so a heuristic making several moves only pays for one evaluation.
+	 */
+	public void invalidateObjectiveFunctionValue();
 	
 	/**
 	 * 
@@ -2,8 +2,10 @@ package com.aim.project.uzf.interfaces;
 
 import java.util.ArrayList;
 
+import com.aim.project.uzf.instance.DistanceMatrix;
 import com.aim.project.uzf.instance.InitialisationMode;
 import com.aim.project.uzf.instance.Location;
+import com.aim.project.uzf.instance.NeighbourLists;
 import com.aim.project.uzf.solution.UZFSolution;
 
 /**
@@ -14,14 +16,15 @@ public interface UZFInstanceInterface {
 
 	/**
 	 * 
-	 * @param mode The initialisation mode to use. Remember to handle both RANDOM and CONSTRUCTIVE methods.
+	 * @param mode The initialisation mode to use.
 	 * @return
 	 */
 	public UZFSolution createSolution(InitialisationMode mode);
 	
 	/**
 	 * 
-	 * @return The objective function used to evaluate the current problem instance.
+	 * @return The objective function used to evaluate the current problem instance; the same immutable object is
+	 * returned on every call.
 	 */
 	public ObjectiveFunctionInterface getUZFObjectiveFunction();
 	
@@ -38,6 +41,26 @@ public interface UZFInstanceInterface {
 	 */
 	public Location getLocationForEnclosure(int iEnclosureId);
 
+	/**
+	 *
+	 * @return The enclosure coordinates interleaved as x0, y0, x1, y1, ...; the array is shared and must not be modified.
+	 */
+	public int[] getEnclosureCoordinates();
+
+	/**
+	 *
+	 * @param iEnclosureId The enclosure ID used by solutions of this instance.
+	 * @return The ID of the enclosure in the instance file, which differs when the enclosures were renumbered.
+	 */
+	public int getOriginalEnclosureId(int iEnclosureId);
+
+	/**
+	 *
+	 * @param iOriginalEnclosureId The ID of an enclosure in the instance file.
+	 * @return The enclosure ID used by solutions of this instance.
+	 */
+	public int getEnclosureId(int iOriginalEnclosureId);
+
 	/**
 	 *
 	 * @return
@@ -50,4 +73,23 @@ public interface UZFInstanceInterface {
 	 * @return
 	 */
 	public ArrayList<Location> getSolutionAsListOfLocations(UAVSolutionInterface oSolution);
+
+	/**
+	 *
+	 * @return The k-nearest neighbour lists of the enclosures, built on first use if they were not loaded.
+	 */
+	public NeighbourLists getNeighbourLists();
+
+	/**
+	 *
+	 * @return The precomputed distance matrix, or <code>null</code> if the instance does not hold one.
+	 */
+	public DistanceMatrix getDistanceMatrix();
+
+	/**
+	 *
+	 * @return The precomputed distances used for evaluation, or <code>null</code> if distances are calculated from
+	 * the coordinates; see {@link com.aim.project.uzf.UZFObjectiveFunction#selectDistanceStore}.
+	 */
+	public DistanceStoreInterface getDistanceStore();
 }
@@ -0,0 +1,100 @@
+package com.aim.project.uzf.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Buffered, allocation-free output over an NIO channel.
+ * Binary values are written little-endian; decimal values are encoded as ASCII without creating strings.
+ */
+public class ChannelOutput {
+
+	public static final int DEFAULT_BUFFER_BYTES = 1 << 16;
+
+	private final ByteBuffer buffer;
+	private final byte[] digits = new byte[20];
+	private WritableByteChannel channel;
+
+	public ChannelOutput(int bufferBytes) {
+
+		this.buffer = ByteBuffer.allocateDirect(bufferBytes).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	// Sets the channel that buffered output is drained to
+	public void setChannel(WritableByteChannel channel) {
+
+		this.channel = channel;
+		this.buffer.clear();
+	}
+
+	public void writeByte(int value) throws IOException {
+
+		ensure(1);
+		buffer.put((byte) value);
+	}
+
+	public void writeInt(int value) throws IOException {
+
+		ensure(Integer.BYTES);
+		buffer.putInt(value);
+	}
+
+	public void writeLong(long value) throws IOException {
+
+		ensure(Long.BYTES);
+		buffer.putLong(value);
+	}
+
+	// Writes the characters of a string, which must be ASCII
+	public void writeAscii(String value) throws IOException {
+
+		for (int i = 0; i < value.length(); i++) {
+			writeByte(value.charAt(i));
+		}
+	}
+
+	// Writes a value in decimal notation
+	public void writeDecimal(long value) throws IOException {
+
+		if (value == Long.MIN_VALUE) {
+			writeAscii(Long.toString(value));
+			return;
+		}
+
+		ensure(digits.length);
+		if (value < 0) {
+			buffer.put((byte) '-');
+			value = -value;
+		}
+
+		int length = 0;
+		do {
+			digits[length++] = (byte) ('0' + value % 10);
+			value /= 10;
+		} while (value != 0);
+
+		while (length > 0) {
+			buffer.put(digits[--length]);
+		}
+	}
+
+	// Drains everything buffered so far to the channel
+	public void flush() throws IOException {
+
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	// Helper method to make room for the next value
+	private void ensure(int bytes) throws IOException {
+
+		if (buffer.remaining() < bytes) {
+			flush();
+		}
+	}
+}
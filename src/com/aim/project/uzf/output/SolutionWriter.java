@@ -0,0 +1,294 @@
+package com.aim.project.uzf.output;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.aim.project.uzf.SolutionPrinter;
+import com.aim.project.uzf.UZFDomain;
+
+/**
+ * Writes solutions and other run output on a background thread.
+ * <br>
+ * Solver threads only place a job on a bounded queue; a single daemon thread encodes each job into a
+ * reusable buffer and writes it through a {@link FileChannel}. If the queue is ever full, the job is written
+ * on the calling thread rather than blocking it on the queue or dropping the output.
+ */
+public class SolutionWriter implements AutoCloseable {
+
+	public static final String OUTPUT_DIRECTORY_PROPERTY = "uzf.output.dir";
+
+	public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+	private static SolutionWriter sharedWriter;
+
+	/**
+	 * Something that can be written to a file by the writer thread.
+	 */
+	@FunctionalInterface
+	public interface Payload {
+
+		void writeTo(ChannelOutput out) throws IOException;
+	}
+
+	/**
+	 * Something that can be read back from a file written by the writer thread.
+	 */
+	@FunctionalInterface
+	public interface Reader<T> {
+
+		T readFrom(Path path) throws IOException;
+	}
+
+	// A job written atomically goes to a temporary file first, which is then moved over the path
+	private record Job(Path path, Payload payload, boolean atomic) {
+	}
+
+	// Marks the end of the queue when closing
+	private static final Job POISON = new Job(null, null, false);
+
+	private final BlockingQueue<Job> queue;
+	private final ChannelOutput output = new ChannelOutput(ChannelOutput.DEFAULT_BUFFER_BYTES);
+	private final Thread thread;
+
+	private int pending = 0;
+	private long inlineWrites = 0;
+	private boolean closed = false;
+
+	public SolutionWriter(int queueCapacity) {
+
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.thread = new Thread(this::drain, "uzf-solution-writer");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * @return The writer shared by all runs in this JVM; queued output is written out before the JVM exits.
+	 */
+	public static synchronized SolutionWriter getShared() {
+
+		if (sharedWriter == null) {
+			SolutionWriter writer = new SolutionWriter(DEFAULT_QUEUE_CAPACITY);
+			Runtime.getRuntime().addShutdownHook(new Thread(writer::close, "uzf-solution-writer-shutdown"));
+			sharedWriter = writer;
+		}
+
+		return sharedWriter;
+	}
+
+	/**
+	 * Gets the output path for a run. Every run gets its own file, in the {@value #OUTPUT_DIRECTORY_PROPERTY}
+	 * directory if that system property is set and in the working directory otherwise, so concurrent runs never
+	 * write to the same file.
+	 *
+	 * @param runName A name identifying the run, e.g. the hyper-heuristic, instance and seed.
+	 * @param format The format the tour will be written in.
+	 */
+	public static Path getRunOutputPath(String runName, TourFormat format) {
+
+		String directory = System.getProperty(OUTPUT_DIRECTORY_PROPERTY);
+		return Path.of(directory == null ? "." : directory, runName + format.getFileExtension());
+	}
+
+	/**
+	 * Gets the path of optional run output, such as traces, which unlike the tour is only written on request.
+	 *
+	 * @param runName A name identifying the run.
+	 * @param suffix The suffix (including extension) of the file, e.g. {@code "-trace.csv"}.
+	 * @return The path in the {@value #OUTPUT_DIRECTORY_PROPERTY} directory, or <code>null</code> if the
+	 * property is not set and optional output is therefore disabled.
+	 */
+	public static Path getOptionalRunOutputPath(String runName, String suffix) {
+
+		String directory = System.getProperty(OUTPUT_DIRECTORY_PROPERTY);
+		return directory == null ? null : Path.of(directory, runName + suffix);
+	}
+
+	/**
+	 * Queues the best solution of a run to be written as text and, if per-run output is enabled, exports when each
+	 * best solution was found.
+	 *
+	 * @param oDomain The domain the run was solved in.
+	 * @param runName A name identifying the run, e.g. the hyper-heuristic, instance and seed.
+	 */
+	public static void writeRunOutput(UZFDomain oDomain, String runName) {
+
+		SolutionPrinter oSolutionPrinter = new SolutionPrinter(getRunOutputPath(runName, TourFormat.TEXT),
+				TourFormat.TEXT);
+		oSolutionPrinter.printSolution(oDomain.getLoadedInstance().getSolutionAsListOfLocations(
+				oDomain.getBestSolution()));
+
+		Path tracePath = getOptionalRunOutputPath(runName, "-trace.csv");
+		if (tracePath != null) {
+			oDomain.getImprovementTrace().exportCsv(tracePath);
+		}
+	}
+
+	/**
+	 * Queues the tour to be written to <code>path</code>.
+	 * The writer takes ownership of <code>tour</code>, which must not be modified afterwards.
+	 */
+	public void writeTour(Path path, int[] tour, TourFormat format) {
+
+		write(path, out -> format.write(out, tour));
+	}
+
+	// Queues a payload to be written to path, replacing any existing file
+	public void write(Path path, Payload payload) {
+
+		enqueue(new Job(path, payload, false));
+	}
+
+	/**
+	 * Queues a payload to be written to a temporary file that then replaces <code>path</code> in one step, so that
+	 * readers of <code>path</code> never see a partly written file. Use for files that are read back, e.g. by the
+	 * next run; call {@link #flush()} before reading them in the same JVM.
+	 */
+	public void writeAtomically(Path path, Payload payload) {
+
+		enqueue(new Job(path, payload, true));
+	}
+
+	// Helper method to place a job on the queue, or to write it on this thread if the queue is full
+	private void enqueue(Job job) {
+
+		// Offered under the lock, so that no job can follow the end marker that close() queues
+		boolean queued;
+		synchronized (this) {
+			if (closed) {
+				throw new IllegalStateException("Solution writer is closed");
+			}
+			pending++;
+			queued = queue.offer(job);
+			if (!queued) {
+				inlineWrites++;
+			}
+		}
+
+		if (!queued) {
+			// Queue full: write on this thread instead of waiting for space
+			process(job, new ChannelOutput(ChannelOutput.DEFAULT_BUFFER_BYTES));
+		}
+	}
+
+	// Waits until every queued job has been written
+	public synchronized void flush() {
+
+		while (pending > 0) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Reads a file saved with {@link #writeAtomically(Path, Payload)}, waiting first for every job queued so far,
+	 * so that a run reads what an earlier run in this JVM saved rather than the file that was there before.
+	 *
+	 * @param path The file to read, or <code>null</code>.
+	 * @param reader Turns the file into its contents.
+	 * @return What <code>reader</code> read, or <code>null</code> if <code>path</code> is null, does not exist or
+	 * cannot be read.
+	 */
+	public <T> T readAfterPendingWrites(Path path, Reader<T> reader) {
+
+		if (path == null) {
+			return null;
+		}
+
+		flush();
+		if (!Files.exists(path)) {
+			return null;
+		}
+
+		try {
+			return reader.readFrom(path);
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	// Gets how many jobs had to be written on the calling thread because the queue was full
+	public synchronized long getInlineWrites() {
+
+		return inlineWrites;
+	}
+
+	// Writes out everything queued so far and stops the writer thread
+	@Override
+	public void close() {
+
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+		}
+
+		try {
+			queue.put(POISON);
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// Writer thread loop
+	private void drain() {
+
+		try {
+			Job job;
+			while ((job = queue.take()) != POISON) {
+				process(job, output);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// Helper method to write a single job and mark it as done
+	private void process(Job job, ChannelOutput out) {
+
+		try {
+			Path parent = job.path().toAbsolutePath().getParent();
+			if (parent != null) {
+				Files.createDirectories(parent);
+			}
+			Path target = job.atomic() ? Files.createTempFile(parent, job.path().getFileName().toString(), ".tmp")
+					: job.path();
+			try {
+				try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+						StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+					out.setChannel(channel);
+					job.payload().writeTo(out);
+					out.flush();
+				}
+				if (job.atomic()) {
+					Files.move(target, job.path(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				}
+			} finally {
+				if (job.atomic()) {
+					Files.deleteIfExists(target);
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			// A failing job must not stop the writer thread, or every later job would stay pending
+			e.printStackTrace();
+		} finally {
+			synchronized (this) {
+				pending--;
+				notifyAll();
+			}
+		}
+	}
+}
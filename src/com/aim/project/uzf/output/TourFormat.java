@@ -0,0 +1,62 @@
+package com.aim.project.uzf.output;
+
+import java.io.IOException;
+
+/**
+ * File formats for a tour, given as the sequence of location IDs in visiting order.
+ */
+public enum TourFormat {
+
+	/**
+	 * Location IDs separated by dashes, e.g. {@code 6-5-4-3-2-1}.
+	 */
+	TEXT(".csv") {
+		@Override
+		public void write(ChannelOutput out, int[] tour) throws IOException {
+
+			for (int i = 0; i < tour.length; i++) {
+				if (i > 0) {
+					out.writeByte('-');
+				}
+				out.writeDecimal(tour[i]);
+			}
+		}
+	},
+
+	/**
+	 * {@link #BINARY_MAGIC}, {@link #BINARY_VERSION} and the tour length, followed by the location IDs,
+	 * all as little-endian 32-bit integers.
+	 */
+	BINARY(".uzft") {
+		@Override
+		public void write(ChannelOutput out, int[] tour) throws IOException {
+
+			out.writeInt(BINARY_MAGIC);
+			out.writeInt(BINARY_VERSION);
+			out.writeInt(tour.length);
+			for (int id : tour) {
+				out.writeInt(id);
+			}
+		}
+	};
+
+	// "UZFT" when read as little-endian bytes
+	public static final int BINARY_MAGIC = 0x54465A55;
+
+	public static final int BINARY_VERSION = 1;
+
+	private final String fileExtension;
+
+	TourFormat(String fileExtension) {
+
+		this.fileExtension = fileExtension;
+	}
+
+	public String getFileExtension() {
+
+		return fileExtension;
+	}
+
+	// Writes the tour to the output in this format
+	public abstract void write(ChannelOutput out, int[] tour) throws IOException;
+}
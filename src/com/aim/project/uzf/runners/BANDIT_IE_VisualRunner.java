@@ -0,0 +1,31 @@
+package com.aim.project.uzf.runners;
+
+
+import AbstractClasses.HyperHeuristic;
+import com.aim.project.uzf.hyperheuristics.BANDIT_IE_HH;
+import com.aim.project.uzf.hyperheuristics.SlidingWindowBandit;
+
+/**
+ * Runs the sliding-window bandit IE hyper-heuristic then displays the best solution found
+ */
+public class BANDIT_IE_VisualRunner extends HH_Runner_Visual {
+
+	public BANDIT_IE_VisualRunner(int instanceId) {
+		super(instanceId);
+	}
+	@Override
+	protected HyperHeuristic getHyperHeuristic(long seed) {
+
+		return new BANDIT_IE_HH(seed, SlidingWindowBandit.Policy.UCB, BANDIT_IE_HH.DEFAULT_WINDOW_SIZE,
+				BANDIT_IE_HH.DEFAULT_EXPLORATION);
+	}
+
+	public static void main(String [] args) {
+
+		/* { 0: square.uzf, 1: libraries-15.uzf, 2: carparks-40.uzf, 3: tramstops-85.uzf, 4: grid.uzf,
+		 		5: clustered-enclosures.uzf, 6: chatgpt-instance-100-enclosures.uzf } */
+		HH_Runner_Visual runner = new BANDIT_IE_VisualRunner(4);
+		runner.run();
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.aim.project.uzf.runners;
+
+
+import AbstractClasses.HyperHeuristic;
+import com.aim.project.uzf.hyperheuristics.COMPOSED_HH;
+import com.aim.project.uzf.hyperheuristics.acceptance.LateAcceptance;
+import com.aim.project.uzf.hyperheuristics.selection.ChoiceFunctionSelection;
+
+/**
+ * Runs a hyper-heuristic composed of a selection and an acceptance strategy then displays the best solution found
+ */
+public class COMPOSED_VisualRunner extends HH_Runner_Visual {
+
+	public COMPOSED_VisualRunner(int instanceId) {
+		super(instanceId);
+	}
+	@Override
+	protected HyperHeuristic getHyperHeuristic(long seed) {
+
+		// Swap in any other HeuristicSelectionInterface or MoveAcceptanceInterface, e.g.
+		// new BanditSelection(SlidingWindowBandit.Policy.UCB, 200, 0.5, new Random(seed)) or
+		// new SimulatedAnnealingAcceptance(new Random(seed))
+		return new COMPOSED_HH(seed, new ChoiceFunctionSelection(0.5, 0.5, 0.5), new LateAcceptance());
+	}
+
+	public static void main(String [] args) {
+
+		/* { 0: square.uzf, 1: libraries-15.uzf, 2: carparks-40.uzf, 3: tramstops-85.uzf, 4: grid.uzf,
+		 		5: clustered-enclosures.uzf, 6: chatgpt-instance-100-enclosures.uzf } */
+		HH_Runner_Visual runner = new COMPOSED_VisualRunner(4);
+		runner.run();
+	}
+
+}
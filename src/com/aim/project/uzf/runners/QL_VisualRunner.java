@@ -0,0 +1,33 @@
+package com.aim.project.uzf.runners;
+
+
+import AbstractClasses.HyperHeuristic;
+import com.aim.project.uzf.hyperheuristics.QL_HH;
+import com.aim.project.uzf.hyperheuristics.acceptance.LateAcceptance;
+
+import java.nio.file.Paths;
+
+/**
+ * Runs the Q-learning hyper-heuristic then displays the best solution found
+ */
+public class QL_VisualRunner extends HH_Runner_Visual {
+
+	public QL_VisualRunner(int instanceId) {
+		super(instanceId);
+	}
+	@Override
+	protected HyperHeuristic getHyperHeuristic(long seed) {
+
+		// the table learned by one run warm-starts the next
+		return new QL_HH(seed, new LateAcceptance(), Paths.get("ql-table.bin"));
+	}
+
+	public static void main(String [] args) {
+
+		/* { 0: square.uzf, 1: libraries-15.uzf, 2: carparks-40.uzf, 3: tramstops-85.uzf, 4: grid.uzf,
+		 		5: clustered-enclosures.uzf, 6: chatgpt-instance-100-enclosures.uzf } */
+		HH_Runner_Visual runner = new QL_VisualRunner(4);
+		runner.run();
+	}
+
+}
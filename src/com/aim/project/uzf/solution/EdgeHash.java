@@ -0,0 +1,118 @@
+package com.aim.project.uzf.solution;
+
+/**
+ * Zobrist-style 64-bit hashes of the set of undirected edges a tour uses, counting the edges to and from the food
+ * preparation area. Every edge has a pseudo random key and the hash of a tour is the XOR of the keys of its edges, so
+ * a tour and its reverse, which visit the enclosures along the same route, hash the same.
+ * <br>
+ * Edge k of a tour of n enclosures joins positions k - 1 and k, where positions -1 and n are the food preparation
+ * area. A move only changes a few edges, so its effect on the hash is the XOR of the keys of those edges before and
+ * after the move, which the helpers below calculate in constant time.
+ */
+public final class EdgeHash {
+
+	// Node ID used for the food preparation area
+	private static final int FOOD_PREPARATION_AREA = -1;
+
+	private EdgeHash() {
+	}
+
+	/**
+	 * @param tour The enclosure IDs in visiting order.
+	 * @return The hash of every edge of the tour.
+	 */
+	public static long of(int[] tour) {
+
+		long hash = 0;
+		for (int k = 0; k <= tour.length; k++) {
+			hash ^= edge(tour, k);
+		}
+
+		return hash;
+	}
+
+	/**
+	 * @return The hash of the edges that change when positions i and j are swapped, before or after the swap.
+	 */
+	public static long swapEdges(int[] tour, int i, int j) {
+
+		int lo = Math.min(i, j);
+		int hi = Math.max(i, j);
+		if (lo == hi) {
+			return 0;
+		}
+
+		long hash = edge(tour, lo) ^ edge(tour, lo + 1) ^ edge(tour, hi + 1);
+		// The edge between adjacent positions stays, so only count it once
+		return hi == lo + 1 ? hash : hash ^ edge(tour, hi);
+	}
+
+	/**
+	 * @param applied Whether the element at <code>from</code> has already been moved to <code>to</code>.
+	 * @return The hash of the edges that change when the element at position from is reinserted at position to.
+	 */
+	public static long reinsertionEdges(int[] tour, int from, int to, boolean applied) {
+
+		if (from == to) {
+			return 0;
+		}
+
+		int lo = Math.min(from, to);
+		int hi = Math.max(from, to);
+		// The edges around the element's old position and next to its new one, in positions of the given tour
+		int inner = applied == (from < to) ? hi : lo + 1;
+
+		return edge(tour, lo) ^ edge(tour, inner) ^ edge(tour, hi + 1);
+	}
+
+	/**
+	 * @return The hash of the edges that change when positions i to j (inclusive) are reversed, before or after.
+	 */
+	public static long inversionEdges(int[] tour, int i, int j) {
+
+		int lo = Math.min(i, j);
+		int hi = Math.max(i, j);
+
+		return lo == hi ? 0 : edge(tour, lo) ^ edge(tour, hi + 1);
+	}
+
+	/**
+	 * @param a The first tour.
+	 * @param b The second tour.
+	 * @return Whether both tours visit the enclosures in the same order, in either direction.
+	 */
+	public static boolean sameRoute(int[] a, int[] b) {
+
+		if (a.length != b.length) {
+			return false;
+		}
+
+		boolean forward = true;
+		boolean backward = true;
+		for (int i = 0, n = a.length; i < n && (forward || backward); i++) {
+			forward &= a[i] == b[i];
+			backward &= a[i] == b[n - 1 - i];
+		}
+
+		return forward || backward;
+	}
+
+	// Helper method to get the key of edge k of the tour
+	private static long edge(int[] tour, int k) {
+
+		int u = k == 0 ? FOOD_PREPARATION_AREA : tour[k - 1];
+		int v = k == tour.length ? FOOD_PREPARATION_AREA : tour[k];
+
+		return key(Math.min(u, v), Math.max(u, v));
+	}
+
+	// Helper method to mix the two end points of an edge into its key (the SplitMix64 finaliser)
+	private static long key(int lo, int hi) {
+
+		long z = ((long) lo << 32 | (hi & 0xFFFFFFFFL)) + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+		return z ^ (z >>> 31);
+	}
+}
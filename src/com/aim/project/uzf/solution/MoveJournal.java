@@ -0,0 +1,205 @@
+package com.aim.project.uzf.solution;
+
+/**
+ * Records the elementary operations (swap, reinsertion, inversion) applied to a solution representation so that
+ * they can be rolled back in reverse order, instead of keeping a copy of the representation from before.
+ * <br>
+ * Operations are stored as three ints each. An operation that exactly undoes the previous one (such as a local
+ * search reverting a rejected swap) cancels it instead of being recorded. Once more than the capacity is recorded,
+ * the journal falls back to reconstructing a single copy of the original representation and stops recording.
+ */
+public class MoveJournal {
+
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private static final int SWAP = 0;
+	private static final int REINSERTION = 1;
+	private static final int INVERSION = 2;
+
+	private final int capacity;
+	private final int[] operations;
+	private int size;
+	// XOR of the edge hash changes of every move since the journal was started
+	private long edgeHashChange;
+
+	private int[] representation;
+	// Copy of the original representation once the capacity has been exceeded, reused between moves
+	private int[] checkpoint;
+	private boolean overflowed;
+
+	public MoveJournal(int capacity) {
+
+		this.capacity = capacity;
+		this.operations = new int[3 * capacity];
+	}
+
+	/**
+	 * Starts a new journal for the given representation, discarding anything recorded before.
+	 *
+	 * @param representation The array the following operations are applied to.
+	 */
+	public void begin(int[] representation) {
+
+		this.representation = representation;
+		clear();
+	}
+
+	// Discards the recorded operations, keeping the representation as it is
+	public void clear() {
+
+		size = 0;
+		overflowed = false;
+		edgeHashChange = 0;
+	}
+
+	// Gets the number of operations that would be undone by a rollback
+	public int getNumberOfMoves() {
+
+		return size;
+	}
+
+	// Gets whether the capacity was exceeded and a rollback restores a copy instead
+	public boolean hasOverflowed() {
+
+		return overflowed;
+	}
+
+	// Records the effect of a move on the edge hash, so that it can be undone along with the move
+	public void recordEdgeHashChange(long change) {
+
+		edgeHashChange ^= change;
+	}
+
+	// Gets the change in edge hash a rollback undoes
+	public long getEdgeHashChange() {
+
+		return edgeHashChange;
+	}
+
+	// Records that positions i and j were swapped
+	public void recordSwap(int i, int j) {
+
+		if (isInverseOfLast(SWAP, i, j) || isInverseOfLast(SWAP, j, i)) {
+			size--;
+			return;
+		}
+		record(SWAP, i, j);
+	}
+
+	// Records that the element at position from was removed and inserted at position to
+	public void recordReinsertion(int from, int to) {
+
+		if (isInverseOfLast(REINSERTION, to, from)) {
+			size--;
+			return;
+		}
+		record(REINSERTION, from, to);
+	}
+
+	// Records that positions i to j (inclusive) were reversed
+	public void recordInversion(int i, int j) {
+
+		if (isInverseOfLast(INVERSION, i, j)) {
+			size--;
+			return;
+		}
+		record(INVERSION, i, j);
+	}
+
+	/**
+	 * Restores the representation to its state when {@link #begin(int[])} was called, and clears the journal.
+	 */
+	public void rollback() {
+
+		if (overflowed) {
+			System.arraycopy(checkpoint, 0, representation, 0, representation.length);
+		} else {
+			undo(representation, size);
+		}
+		clear();
+	}
+
+	/**
+	 * Swaps positions i and j of the representation.
+	 */
+	public static void swap(int[] representation, int i, int j) {
+
+		int temp = representation[i];
+		representation[i] = representation[j];
+		representation[j] = temp;
+	}
+
+	/**
+	 * Removes the element at position from and inserts it at position to, shifting the elements in between.
+	 */
+	public static void reinsert(int[] representation, int from, int to) {
+
+		int element = representation[from];
+		if (from < to) {
+			System.arraycopy(representation, from + 1, representation, from, to - from);
+		} else {
+			System.arraycopy(representation, to, representation, to + 1, from - to);
+		}
+		representation[to] = element;
+	}
+
+	/**
+	 * Reverses positions i to j (inclusive) of the representation.
+	 */
+	public static void invert(int[] representation, int i, int j) {
+
+		while (i < j) {
+			swap(representation, i++, j--);
+		}
+	}
+
+	// Helper method to append an operation, falling back to a copy of the original once the journal is full
+	private void record(int operation, int a, int b) {
+
+		if (overflowed) {
+			return;
+		}
+		if (size == capacity) {
+			if (checkpoint == null || checkpoint.length != representation.length) {
+				checkpoint = new int[representation.length];
+			}
+			System.arraycopy(representation, 0, checkpoint, 0, representation.length);
+			// The new operation has already been applied, so undo it first
+			undo(checkpoint, operation, a, b);
+			undo(checkpoint, size);
+			size = 0;
+			overflowed = true;
+			return;
+		}
+
+		operations[3 * size] = operation;
+		operations[3 * size + 1] = a;
+		operations[3 * size + 2] = b;
+		size++;
+	}
+
+	// Helper method to check whether an operation undoes the last recorded one
+	private boolean isInverseOfLast(int operation, int a, int b) {
+
+		return !overflowed && size > 0 && operations[3 * size - 3] == operation
+				&& operations[3 * size - 2] == a && operations[3 * size - 1] == b;
+	}
+
+	// Helper method to undo the first count recorded operations on the array, last one first
+	private void undo(int[] array, int count) {
+
+		for (int m = count - 1; m >= 0; m--) {
+			undo(array, operations[3 * m], operations[3 * m + 1], operations[3 * m + 2]);
+		}
+	}
+
+	// Helper method to undo a single operation
+	private static void undo(int[] array, int operation, int a, int b) {
+
+		switch (operation) {
+			case SWAP -> swap(array, a, b);
+			case REINSERTION -> reinsert(array, b, a);
+			default -> invert(array, a, b);
+		}
+	}
+}
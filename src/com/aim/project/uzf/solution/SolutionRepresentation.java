@@ -13,11 +13,26 @@ public class SolutionRepresentation implements SolutionRepresentationInterface {
 
 	private int[] aiRepresentation;
 
+	// Only attached while the domain applies a heuristic in place
+	private MoveJournal oMoveJournal;
+
+	// Edge hash of the representation, only valid while bEdgeHashKnown is set
+	private long lEdgeHash;
+	private boolean bEdgeHashKnown;
+
 	public SolutionRepresentation(int[] aiRepresentation) {
 
 		this.aiRepresentation = aiRepresentation;
 	}
 
+	// Copy constructor used by clone, keeping the edge hash
+	private SolutionRepresentation(int[] aiRepresentation, long lEdgeHash, boolean bEdgeHashKnown) {
+
+		this.aiRepresentation = aiRepresentation;
+		this.lEdgeHash = lEdgeHash;
+		this.bEdgeHashKnown = bEdgeHashKnown;
+	}
+
 	// Gets the solution representation array
 	@Override
 	public int[] getSolutionRepresentation() {
@@ -30,6 +45,7 @@ public class SolutionRepresentation implements SolutionRepresentationInterface {
 	public void setSolutionRepresentation(int[] aiSolutionRepresentation) {
 
 		this.aiRepresentation = aiSolutionRepresentation;
+		this.bEdgeHashKnown = false;
 	}
 
 	// Gets the number of locations in the solution representation
@@ -40,11 +56,50 @@ public class SolutionRepresentation implements SolutionRepresentationInterface {
 	}
 
 
-	// Deep clone of the SolutionRepresentation
+	// Gets the journal operations are recorded in
+	@Override
+	public MoveJournal getMoveJournal() {
+
+		return this.oMoveJournal;
+	}
+
+	// Sets the journal operations are recorded in
+	@Override
+	public void setMoveJournal(MoveJournal oMoveJournal) {
+
+		this.oMoveJournal = oMoveJournal;
+	}
+
+	// Gets the edge hash, calculating it from the whole representation if it is not known
+	@Override
+	public long getEdgeHash() {
+
+		if (!this.bEdgeHashKnown) {
+			this.lEdgeHash = EdgeHash.of(this.aiRepresentation);
+			this.bEdgeHashKnown = true;
+		}
+		return this.lEdgeHash;
+	}
+
+	// Updates the edge hash after a move
+	@Override
+	public void updateEdgeHash(long lChange) {
+
+		this.lEdgeHash ^= lChange;
+	}
+
+	// Marks the edge hash as unknown
+	@Override
+	public void invalidateEdgeHash() {
+
+		this.bEdgeHashKnown = false;
+	}
+
+	// Deep clone of the SolutionRepresentation (without the journal)
 	@Override
 	public SolutionRepresentationInterface clone() {
 		// Create a new instance of SolutionRepresentation with the same representation (deep clone)
-		return new SolutionRepresentation(this.aiRepresentation.clone());
+		return new SolutionRepresentation(this.aiRepresentation.clone(), this.lEdgeHash, this.bEdgeHashKnown);
 	}
 
 }
@@ -1,11 +1,13 @@
 package com.aim.project.uzf.solution;
 
+import com.aim.project.uzf.interfaces.ObjectiveFunctionInterface;
 import com.aim.project.uzf.interfaces.UAVSolutionInterface;
 import com.aim.project.uzf.interfaces.SolutionRepresentationInterface;
 
 /**
  * Represents a solution for the UZF problem.
  * Stores the solution representation and the objective function value.
+ * The value is evaluated lazily once invalidated, using the objective function of the instance.
  *
  * @author Warren G Jackson
  * @since 1.0.0 (22/03/2024)
@@ -15,10 +17,18 @@ public class UZFSolution implements UAVSolutionInterface {
 
 	SolutionRepresentationInterface representation; // Store the solution representation
 	private int objectFunctionValue; // Store the object function value
+	private final ObjectiveFunctionInterface objectiveFunction; // Evaluates the solution once invalidated
+	private boolean dirty; // Whether the stored value is out of date
 	
 	public UZFSolution(SolutionRepresentationInterface representation, int objectiveFunctionValue) {
+		this(representation, objectiveFunctionValue, null);
+	}
+
+	public UZFSolution(SolutionRepresentationInterface representation, int objectiveFunctionValue,
+			ObjectiveFunctionInterface objectiveFunction) {
 		this.representation = representation;
 		this.objectFunctionValue = objectiveFunctionValue;
+		this.objectiveFunction = objectiveFunction;
 	}
 
 
@@ -26,6 +36,11 @@ public class UZFSolution implements UAVSolutionInterface {
 	@Override
 	public int getObjectiveFunctionValue() {
 
+		// Evaluate the representation only if it changed since the value was last known
+		if (this.dirty) {
+			this.objectFunctionValue = this.objectiveFunction.getObjectiveFunctionValue(this.representation);
+			this.dirty = false;
+		}
 		return this.objectFunctionValue;
 	}
 
@@ -34,6 +49,17 @@ public class UZFSolution implements UAVSolutionInterface {
 	public void setObjectiveFunctionValue(int objectiveFunctionValue) {
 
 		this.objectFunctionValue = objectiveFunctionValue;
+		this.dirty = false;
+	}
+
+	// Marks the objective function value as out of date
+	@Override
+	public void invalidateObjectiveFunctionValue() {
+
+		if (this.objectiveFunction == null) {
+			throw new IllegalStateException("The solution has no objective function to re-evaluate it with");
+		}
+		this.dirty = true;
 	}
 
 	// Gets the solution representation
@@ -47,7 +73,10 @@ public class UZFSolution implements UAVSolutionInterface {
 	@Override
 	public UAVSolutionInterface clone() {
 		// Create a new instance of UZFSolution with the same representation and objective function value
-		return new UZFSolution(this.representation.clone(), this.objectFunctionValue);
+		UZFSolution copy = new UZFSolution(this.representation.clone(), this.objectFunctionValue,
+				this.objectiveFunction);
+		copy.dirty = this.dirty;
+		return copy;
 	}
 
 	// Gets the number of locations in the solution representation